@@ -35,6 +35,9 @@ import com.github.yuri6037.sje2d.asset.config.TypeRegistry;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.manager.AssetManager;
 import com.github.yuri6037.sje2d.asset.engine.manager.AssetManagerProxy;
+import com.github.yuri6037.sje2d.asset.engine.manager.LoaderPool;
+import com.github.yuri6037.sje2d.asset.engine.manager.Priority;
+import com.github.yuri6037.sje2d.asset.engine.manager.SchedulerType;
 import com.github.yuri6037.sje2d.config.AppType;
 import com.github.yuri6037.sje2d.input.IInputConfig;
 import com.github.yuri6037.sje2d.screen.IScreen;
@@ -54,6 +57,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
+import java.net.URL;
 
 public class Application {
     private static final Logger LOGGER
@@ -76,6 +80,15 @@ public class Application {
         return appClass.getClassLoader().getResourceAsStream(name);
     }
 
+    /**
+     * Locates a resource contained in the application's jar file.
+     * @param name the name of the resource to locate.
+     * @return the URL of the resource or null if the resource could not be found.
+     */
+    public static URL getResourceURL(final String name) {
+        return appClass.getClassLoader().getResource(name);
+    }
+
     private static AppType load(final InputStream stream) throws JAXBException {
         JAXBContext ctx = JAXBContext.newInstance(AppType.class);
         return ctx.createUnmarshaller().unmarshal(new StreamSource(stream), AppType.class).getValue();
@@ -102,7 +115,9 @@ public class Application {
         LOGGER.debug("Creating AssetManager...");
         TypeRegistry.Builder builder = new TypeRegistry.Builder();
         getAssetConfig().populateTypeRegistry(builder);
-        manager = new AssetManager(builder.build());
+        LoaderPool pool = LoaderPool.configure(getAssetConfig().getLoaderThreads(),
+                getAssetConfig().useVirtualLoaders());
+        manager = new AssetManager(builder.build(), SchedulerType.Event, pool);
         LOGGER.debug("Creating AssetManagerProxy...");
         assets = manager.newProxy();
     }
@@ -156,7 +171,8 @@ public class Application {
 
     private void onStart() {
         try {
-            assets.queue(new AssetURL("texture/jpg resource://init.jpg?scope=engine&namespace=Engine&vpath=Init"));
+            assets.queue(new AssetURL("texture/jpg resource://init.jpg?scope=engine&namespace=Engine&vpath=Init"),
+                    Priority.Immediate);
             syncAssetsManager();
             setScreen(new InitScreen(this));
             registerAssets();
@@ -186,6 +202,8 @@ public class Application {
             curScreen.close();
         }
         shutdown();
+        manager.shutdown();
+        LoaderPool.shutdownShared();
     }
 
     /**
@@ -38,6 +38,7 @@ import com.github.yuri6037.sje2d.config.AppType;
 import com.github.yuri6037.sje2d.config.AxisType;
 import com.github.yuri6037.sje2d.config.BindingType;
 import com.github.yuri6037.sje2d.config.DisplayType;
+import com.github.yuri6037.sje2d.config.LoadersType;
 import com.github.yuri6037.sje2d.input.Axis;
 import com.github.yuri6037.sje2d.input.Binding;
 import com.github.yuri6037.sje2d.input.IInputConfig;
@@ -69,6 +70,8 @@ final class XMLAppConfig implements IInputConfig, IWindowConfig, IAssetConfig {
     private final DisplayType displayConfig;
     private final ArrayList<IAssetProtocol> assetProtocols = new ArrayList<>();
     private final ArrayList<IAssetFactory> assetFactories = new ArrayList<>();
+    private final int loaderThreads;
+    private final boolean virtualLoaders;
 
     XMLAppConfig(final AppType appcfg) {
         for (BindingType binding: appcfg.getInput().getBindings().getBinding()) {
@@ -124,6 +127,9 @@ final class XMLAppConfig implements IInputConfig, IWindowConfig, IAssetConfig {
                 LOGGER.warn("Failed to add type '{}' to registry, ignoring...", elem.getValue(), e);
             }
         }
+        LoadersType loaders = appcfg.getAssets().getLoaders();
+        loaderThreads = loaders != null && loaders.getThreads() != null ? loaders.getThreads() : 0;
+        virtualLoaders = loaders != null && loaders.isVirtual() != null && loaders.isVirtual();
     }
 
     @Override
@@ -195,4 +201,14 @@ final class XMLAppConfig implements IInputConfig, IWindowConfig, IAssetConfig {
             registry.addProtocol(protocol);
         }
     }
+
+    @Override
+    public int getLoaderThreads() {
+        return loaderThreads;
+    }
+
+    @Override
+    public boolean useVirtualLoaders() {
+        return virtualLoaders;
+    }
 }
@@ -56,14 +56,28 @@ public class Animation extends Texture {
      */
     public Animation(final ByteBuffer buffer, final int frameWidth, final int frameHeight, final int fps,
                      final int numRows, final int numColumns, final int frameCount) {
-        super(buffer, frameWidth * numColumns, frameHeight * numRows);
+        this(new TextureData(buffer, frameWidth * numColumns, frameHeight * numRows), frameWidth, frameHeight, fps,
+                frameCount);
+    }
+
+    /**
+     * Creates a new animation from a bitmap of frames which may be padded.
+     * @param data the texel data of the bitmap; frames are laid out in columns from the top left corner.
+     * @param frameWidth the width of a single animation frame.
+     * @param frameHeight the height of a single animation frame.
+     * @param fps the number of FPS of the new animation.
+     * @param frameCount the number of frames in the animation.
+     */
+    public Animation(final TextureData data, final int frameWidth, final int frameHeight, final int fps,
+                     final int frameCount) {
+        super(data);
         this.fps = (double) fps;
         this.frameHeight = frameHeight;
         this.frameWidth = frameWidth;
-        this.numRows = numRows;
+        this.numRows = data.height() / frameHeight;
         this.frameCount = frameCount;
-        this.height = frameHeight * numRows;
-        this.width = frameWidth * numColumns;
+        this.height = data.height();
+        this.width = data.width();
     }
 
     /**
@@ -51,7 +51,20 @@ public class FontBitmap extends Texture {
     public FontBitmap(final ByteBuffer buffer, final int width, final int charHeight,
                       final int bearingX, final int descent, final HashMap<Integer, Integer> charWidth) {
         //noinspection SuspiciousNameCombination
-        super(buffer, width, width);
+        this(new TextureData(buffer, width, width), charHeight, bearingX, descent, charWidth);
+    }
+
+    /**
+     * Creates a new font bitmap from texel data which may be padded.
+     * @param data the texel data of the bitmap.
+     * @param charHeight the maximum character height of this font bitmap.
+     * @param bearingX the X bearing of the font (this is guess due to Java not providing this metric).
+     * @param descent the descent of the font.
+     * @param charWidth the width of each character in this font bitmap.
+     */
+    public FontBitmap(final TextureData data, final int charHeight, final int bearingX, final int descent,
+                      final HashMap<Integer, Integer> charWidth) {
+        super(data);
         this.charHeight = charHeight;
         this.charWidth = charWidth;
         this.bearingX = bearingX;
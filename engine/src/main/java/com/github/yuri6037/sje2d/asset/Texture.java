@@ -31,6 +31,11 @@
 package com.github.yuri6037.sje2d.asset;
 
 import com.github.yuri6037.sje2d.asset.engine.system.IAsset;
+import com.github.yuri6037.sje2d.render.Rect;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 //CHECKSTYLE OFF: AvoidStarImport
 import java.nio.ByteBuffer;
@@ -39,12 +44,20 @@ import static org.lwjgl.opengl.GL12.*;
 //CHECKSTYLE ON
 
 public class Texture implements IAsset {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Texture.class);
+
     /**
      * Hack to allow calling setTexture(null) without getting bullshit ambiguous errors from Java.
      */
     public static final Texture NULL = null;
 
+    /**
+     * The GL texture object currently bound to GL_TEXTURE_2D, tracked to skip redundant binds.
+     */
+    private static int boundId = 0;
+
     private final int id;
+    private final Rect uvRect;
 
     /**
      * Creates a new texture from a buffer and its size.
@@ -53,11 +66,54 @@ public class Texture implements IAsset {
      * @param height the texture height.
      */
     public Texture(final ByteBuffer buffer, final int width, final int height) {
+        this(new TextureData(buffer, width, height));
+    }
+
+    /**
+     * Creates a new texture from texel data which may be padded. Textures which do not have power of 2 dimensions
+     * are padded here if the OpenGL driver does not support them.
+     * @param data the texel data.
+     */
+    public Texture(final TextureData data) {
+        TextureData texels = data;
+        if (!texels.isPowerOfTwo() && !isNonPowerOfTwoSupported()) {
+            LOGGER.warn("Non power of 2 textures are not supported, padding {}x{} texture", texels.width(),
+                    texels.height());
+            texels = texels.padToPowerOfTwo();
+        }
         glEnable(GL_TEXTURE_2D);
         int texture = glGenTextures();
         glBindTexture(GL_TEXTURE_2D, texture);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, width, height, 0, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
+        boundId = texture;
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, texels.textureWidth(), texels.textureHeight(), 0, GL_RGBA,
+                GL_UNSIGNED_BYTE, texels.data());
         id = texture;
+        uvRect = texels.getUVRect();
+    }
+
+    /**
+     * Creates a view on a region of another texture. The view shares the GL texture object of its parent.
+     * NOTE: subclasses must override unload as the GL texture object belongs to the parent.
+     * @param parent the texture to view.
+     * @param region the normalized coordinates of the region, relative to the image of the parent.
+     */
+    protected Texture(final Texture parent, final Rect region) {
+        Rect uv = parent.getUVRect();
+        id = parent.id;
+        uvRect = new Rect(uv.x() + region.x() * uv.getWidth(), uv.y() + region.y() * uv.getHeight(),
+                uv.x() + region.x1() * uv.getWidth(), uv.y() + region.y1() * uv.getHeight());
+    }
+
+    private static boolean isNonPowerOfTwoSupported() {
+        GLCapabilities caps = GL.getCapabilities();
+        return caps.OpenGL20 || caps.GL_ARB_texture_non_power_of_two;
+    }
+
+    /**
+     * @return the normalized texture coordinates covered by the image, (0, 0, 1, 1) unless the texture is padded.
+     */
+    public final Rect getUVRect() {
+        return uvRect;
     }
 
     /**
@@ -67,6 +123,17 @@ public class Texture implements IAsset {
         return id;
     }
 
+    /**
+     * Binds this texture to GL_TEXTURE_2D unless it is already bound, which is the case when drawing successive
+     * views of the same texture atlas page.
+     */
+    public final void bind() {
+        if (boundId != id) {
+            glBindTexture(GL_TEXTURE_2D, id);
+            boundId = id;
+        }
+    }
+
     /**
      * Unloads this texture.
      * NOTE: when overriding this function, you should call back this implementation as otherwise the underlying
@@ -74,6 +141,9 @@ public class Texture implements IAsset {
      */
     @Override
     public void unload() {
+        if (boundId == id) {
+            boundId = 0;
+        }
         glDeleteTextures(id);
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset;
+
+import com.github.yuri6037.sje2d.math.MathUtils;
+import com.github.yuri6037.sje2d.render.Rect;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The texels of a texture before upload.
+ * The image content occupies the top left width x height texels of a textureWidth x textureHeight buffer; the
+ * rest, if any, is padding.
+ * @param data the buffer of textureWidth * textureHeight RGBA texels.
+ * @param width the width of the image content.
+ * @param height the height of the image content.
+ * @param textureWidth the width of the texel buffer.
+ * @param textureHeight the height of the texel buffer.
+ */
+public record TextureData(ByteBuffer data, int width, int height, int textureWidth, int textureHeight) {
+    /**
+     * Creates a new TextureData without padding.
+     * @param data the buffer of width * height RGBA texels.
+     * @param width the width of the image.
+     * @param height the height of the image.
+     */
+    public TextureData(final ByteBuffer data, final int width, final int height) {
+        this(data, width, height, width, height);
+    }
+
+    /**
+     * @return true if both dimensions of the texel buffer are powers of 2.
+     */
+    public boolean isPowerOfTwo() {
+        return MathUtils.isPowerOfTwo(textureWidth) && MathUtils.isPowerOfTwo(textureHeight);
+    }
+
+    /**
+     * @return the normalized texture coordinates of the image content.
+     */
+    public Rect getUVRect() {
+        return new Rect(0, 0, (float) width / (float) textureWidth, (float) height / (float) textureHeight);
+    }
+
+    /**
+     * @return the size in bytes of the texel buffer.
+     */
+    public long getByteSize() {
+        return (long) textureWidth * textureHeight * 4;
+    }
+
+    /**
+     * @return the size in bytes the image content would take once padded to power of 2 dimensions.
+     */
+    public long getPowerOfTwoByteSize() {
+        return (long) MathUtils.nextPowerOfTwo(width) * MathUtils.nextPowerOfTwo(height) * 4;
+    }
+
+    /**
+     * Pads the image content into a buffer with power of 2 dimensions. The last column and row of the image are
+     * repeated once into the padding so that linear filtering does not bleed transparent texels into the edges.
+     * @return a padded copy of this TextureData or this if it already has power of 2 dimensions.
+     */
+    public TextureData padToPowerOfTwo() {
+        if (isPowerOfTwo()) {
+            return this;
+        }
+        int paddedWidth = MathUtils.nextPowerOfTwo(width);
+        int paddedHeight = MathUtils.nextPowerOfTwo(height);
+        ByteBuffer padded = ByteBuffer.allocateDirect(paddedWidth * paddedHeight * 4);
+        int rowSize = width * 4;
+        for (int y = 0; y != height; ++y) {
+            int src = y * textureWidth * 4;
+            int dst = y * paddedWidth * 4;
+            padded.put(dst, data, src, rowSize);
+            if (width < paddedWidth) {
+                padded.putInt(dst + rowSize, data.getInt(src + rowSize - 4));
+            }
+        }
+        if (height < paddedHeight) {
+            int last = (height - 1) * paddedWidth * 4;
+            padded.put(last + paddedWidth * 4, padded, last, Math.min(rowSize + 4, paddedWidth * 4));
+        }
+        return new TextureData(padded, width, height, paddedWidth, paddedHeight);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.atlas;
+
+import com.github.yuri6037.sje2d.asset.Texture;
+import com.github.yuri6037.sje2d.asset.TextureData;
+
+import java.nio.ByteBuffer;
+
+//CHECKSTYLE OFF: AvoidStarImport
+import static org.lwjgl.opengl.GL12.*;
+//CHECKSTYLE ON
+
+/**
+ * A square page of a texture atlas.
+ * The texels of the page are kept in memory so that textures can be packed from loader threads; the GL texture
+ * object is created and updated with the rows which changed when views are created on the main thread.
+ * All methods are called with the lock of the owning atlas held.
+ */
+public final class AtlasPage {
+    /**
+     * The number of texels each packed image is extruded by to keep linear filtering from sampling its neighbours.
+     */
+    static final int BORDER = 1;
+
+    private final TextureAtlas atlas;
+    private final int size;
+    private final int min;
+    private final int mag;
+    private final SkylinePacker packer;
+    private final ByteBuffer texels;
+    private Texture texture = null;
+    private int references = 0;
+    private int dirtyStart;
+    private int dirtyEnd = 0;
+
+    AtlasPage(final TextureAtlas atlas, final int size, final int min, final int mag) {
+        this.atlas = atlas;
+        this.size = size;
+        this.min = min;
+        this.mag = mag;
+        packer = new SkylinePacker(size, size);
+        texels = ByteBuffer.allocateDirect(size * size * 4);
+        dirtyStart = size;
+    }
+
+    boolean hasFilters(final int minFilter, final int magFilter) {
+        return min == minFilter && mag == magFilter;
+    }
+
+    AtlasRegion add(final TextureData data) {
+        int width = data.width();
+        int height = data.height();
+        SkylinePacker.Slot slot = packer.insert(width + BORDER * 2, height + BORDER * 2);
+        if (slot == null) {
+            return null;
+        }
+        int rowSize = width * 4;
+        int stride = size * 4;
+        int start = (slot.y() + BORDER) * stride + (slot.x() + BORDER) * 4;
+        for (int y = 0; y != height; ++y) {
+            int src = y * data.textureWidth() * 4;
+            int dst = start + y * stride;
+            texels.put(dst, data.data(), src, rowSize);
+            for (int b = 1; b <= BORDER; ++b) {
+                texels.putInt(dst - b * 4, texels.getInt(dst));
+                texels.putInt(dst + rowSize + (b - 1) * 4, texels.getInt(dst + rowSize - 4));
+            }
+        }
+        int left = start - BORDER * 4;
+        int extrudedRowSize = rowSize + BORDER * 8;
+        for (int b = 1; b <= BORDER; ++b) {
+            texels.put(left - b * stride, texels, left, extrudedRowSize);
+            texels.put(left + (height - 1 + b) * stride, texels, left + (height - 1) * stride, extrudedRowSize);
+        }
+        dirtyStart = Math.min(dirtyStart, slot.y());
+        dirtyEnd = Math.max(dirtyEnd, slot.y() + slot.height());
+        ++references;
+        return new AtlasRegion(this, slot.x() + BORDER, slot.y() + BORDER, width, height);
+    }
+
+    Texture upload() {
+        if (texture == null) {
+            texture = new Texture(new TextureData(texels, size, size));
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, min);
+            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, mag);
+        } else if (dirtyStart < dirtyEnd) {
+            texture.bind();
+            glTexSubImage2D(GL_TEXTURE_2D, 0, 0, dirtyStart, size, dirtyEnd - dirtyStart, GL_RGBA,
+                    GL_UNSIGNED_BYTE, texels.slice(dirtyStart * size * 4, (dirtyEnd - dirtyStart) * size * 4));
+        }
+        dirtyStart = size;
+        dirtyEnd = 0;
+        return texture;
+    }
+
+    /**
+     * Releases one packed texture.
+     * @return true if no packed texture is left in this page.
+     */
+    boolean release() {
+        return --references == 0;
+    }
+
+    /**
+     * @return the GL texture of this page or null if it was never uploaded.
+     */
+    Texture getTexture() {
+        return texture;
+    }
+
+    /**
+     * @return the atlas which owns this page.
+     */
+    public TextureAtlas getAtlas() {
+        return atlas;
+    }
+
+    /**
+     * @return the width and height of this page in texels.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the fraction of this page covered by packed textures, including their borders.
+     */
+    public float getOccupancy() {
+        return packer.getOccupancy();
+    }
+
+    /**
+     * @return a read-only view of the RGBA texels of this page.
+     */
+    public ByteBuffer getTexels() {
+        return texels.asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.atlas;
+
+import com.github.yuri6037.sje2d.asset.Texture;
+
+/**
+ * A texture packed into a texture atlas page.
+ * Drawing successive views of the same page does not rebind any texture.
+ */
+public final class AtlasTexture extends Texture {
+    private final AtlasRegion region;
+
+    AtlasTexture(final Texture page, final AtlasRegion region) {
+        super(page, region.getUVRect());
+        this.region = region;
+    }
+
+    /**
+     * @return the location of this texture in its atlas page.
+     */
+    public AtlasRegion getRegion() {
+        return region;
+    }
+
+    /**
+     * Releases this texture from its page. The GL texture object of the page is deleted with its last texture.
+     */
+    @Override
+    public void unload() {
+        TextureAtlas atlas = region.page().getAtlas();
+        atlas.release(region);
+        atlas.deleteReleasedPages();
+    }
+}
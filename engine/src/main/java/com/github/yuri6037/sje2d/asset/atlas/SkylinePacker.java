@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.atlas;
+
+import java.util.ArrayList;
+
+/**
+ * A skyline bottom-left rectangle packer.
+ * The packer tracks the top edge of the packed rectangles as a list of horizontal segments and places each new
+ * rectangle on the segment where its top ends the lowest, preferring the narrowest segment on ties. The space
+ * left below the skyline is never reused, which keeps insertion linear in the number of segments.
+ */
+public final class SkylinePacker {
+    /**
+     * A packed rectangle.
+     * @param x the x coordinate of the rectangle.
+     * @param y the y coordinate of the rectangle.
+     * @param width the width of the rectangle.
+     * @param height the height of the rectangle.
+     */
+    public record Slot(int x, int y, int width, int height) {
+    }
+
+    private record Segment(int x, int y, int width) {
+    }
+
+    private final int width;
+    private final int height;
+    private final ArrayList<Segment> skyline = new ArrayList<>();
+    private long usedArea = 0;
+
+    /**
+     * Creates a new empty SkylinePacker.
+     * @param width the width of the area to pack into.
+     * @param height the height of the area to pack into.
+     */
+    public SkylinePacker(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        skyline.add(new Segment(0, 0, width));
+    }
+
+    private int fit(final int index, final int w, final int h) {
+        Segment first = skyline.get(index);
+        if (first.x + w > width) {
+            return -1;
+        }
+        int y = first.y;
+        int remaining = w;
+        for (int i = index; remaining > 0; ++i) {
+            Segment segment = skyline.get(i);
+            y = Math.max(y, segment.y);
+            if (y + h > height) {
+                return -1;
+            }
+            remaining -= segment.width;
+        }
+        return y;
+    }
+
+    /**
+     * Packs a new rectangle.
+     * @param w the width of the rectangle.
+     * @param h the height of the rectangle.
+     * @return the location of the rectangle or null if it does not fit anymore.
+     */
+    public Slot insert(final int w, final int h) {
+        if (w <= 0 || h <= 0) {
+            throw new IllegalArgumentException("Invalid rectangle size " + w + "x" + h);
+        }
+        int best = -1;
+        int bestY = Integer.MAX_VALUE;
+        int bestWidth = Integer.MAX_VALUE;
+        for (int i = 0; i != skyline.size(); ++i) {
+            int y = fit(i, w, h);
+            if (y >= 0 && (y < bestY || (y == bestY && skyline.get(i).width < bestWidth))) {
+                best = i;
+                bestY = y;
+                bestWidth = skyline.get(i).width;
+            }
+        }
+        if (best == -1) {
+            return null;
+        }
+        Segment base = skyline.get(best);
+        skyline.add(best, new Segment(base.x, bestY + h, w));
+        int end = base.x + w;
+        int i = best + 1;
+        while (i < skyline.size() && skyline.get(i).x < end) {
+            Segment segment = skyline.get(i);
+            int segmentEnd = segment.x + segment.width;
+            if (segmentEnd <= end) {
+                skyline.remove(i);
+            } else {
+                skyline.set(i, new Segment(end, segment.y, segmentEnd - end));
+                break;
+            }
+        }
+        merge();
+        usedArea += (long) w * h;
+        return new Slot(base.x, bestY, w, h);
+    }
+
+    private void merge() {
+        int i = 0;
+        while (i < skyline.size() - 1) {
+            Segment a = skyline.get(i);
+            Segment b = skyline.get(i + 1);
+            if (a.y == b.y) {
+                skyline.set(i, new Segment(a.x, a.y, a.width + b.width));
+                skyline.remove(i + 1);
+            } else {
+                ++i;
+            }
+        }
+    }
+
+    /**
+     * @return the fraction of the area covered by packed rectangles.
+     */
+    public float getOccupancy() {
+        return (float) usedArea / ((float) width * height);
+    }
+}
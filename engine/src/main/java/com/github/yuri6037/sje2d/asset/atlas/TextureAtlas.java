@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.atlas;
+
+import com.github.yuri6037.sje2d.asset.Texture;
+import com.github.yuri6037.sje2d.asset.TextureData;
+import com.github.yuri6037.sje2d.math.MathUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A runtime texture atlas.
+ * Small textures are packed into shared square pages at load time and drawn through AtlasTexture views, so that
+ * drawing many of them does not rebind textures. Textures only share a page with textures using the same filters.
+ * Packing happens on loader threads and only touches memory; GL textures are created and updated by
+ * createTexture on the main thread.
+ * Named atlases are selected by texture loaders with the atlas URL parameter; their page size is 1024 unless
+ * changed with -Dcom.github.yuri6037.sje2d.atlas.pageSize=size.
+ */
+public final class TextureAtlas {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TextureAtlas.class);
+    private static final String PROP_PAGE_SIZE = "com.github.yuri6037.sje2d.atlas.pageSize";
+    private static final int DEFAULT_PAGE_SIZE = 1024;
+    private static final ConcurrentHashMap<String, TextureAtlas> ATLASES = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int pageSize;
+    private final ArrayList<AtlasPage> pages = new ArrayList<>();
+    private final ArrayList<Texture> releasedPages = new ArrayList<>();
+
+    /**
+     * Creates a new empty TextureAtlas.
+     * @param name the name of the atlas, for logging.
+     * @param pageSize the width and height of each page, must be a power of 2.
+     */
+    public TextureAtlas(final String name, final int pageSize) {
+        if (!MathUtils.isPowerOfTwo(pageSize)) {
+            throw new IllegalArgumentException("Atlas page size " + pageSize + " is not a power of 2");
+        }
+        this.name = name;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Gets a named atlas, creating it on first use.
+     * @param name the name of the atlas.
+     * @return the atlas.
+     */
+    public static TextureAtlas get(final String name) {
+        return ATLASES.computeIfAbsent(name, k -> new TextureAtlas(k, Integer.getInteger(PROP_PAGE_SIZE,
+                DEFAULT_PAGE_SIZE)));
+    }
+
+    /**
+     * @return the largest width and height of the textures accepted by this atlas.
+     */
+    public int getMaxTextureSize() {
+        return pageSize / 2;
+    }
+
+    /**
+     * Packs a texture into this atlas. Can be called from any thread.
+     * @param data the texels of the texture.
+     * @param min the minification filter of the texture.
+     * @param mag the magnification filter of the texture.
+     * @return the location of the texture or null if the texture is too large for this atlas.
+     */
+    public synchronized AtlasRegion pack(final TextureData data, final int min, final int mag) {
+        if (data.width() > getMaxTextureSize() || data.height() > getMaxTextureSize()) {
+            return null;
+        }
+        for (AtlasPage page : pages) {
+            if (page.hasFilters(min, mag)) {
+                AtlasRegion region = page.add(data);
+                if (region != null) {
+                    return region;
+                }
+            }
+        }
+        AtlasPage page = new AtlasPage(this, pageSize, min, mag);
+        pages.add(page);
+        LOGGER.info("Created {}x{} page in texture atlas '{}' ({} pages)", pageSize, pageSize, name, pages.size());
+        return page.add(data);
+    }
+
+    /**
+     * Creates the texture of a packed region, uploading the texels its page gained since the last call.
+     * Must be called on the main thread.
+     * @param region the region returned by pack.
+     * @return a new texture viewing the region.
+     */
+    public synchronized Texture createTexture(final AtlasRegion region) {
+        deleteReleasedPages();
+        return new AtlasTexture(region.page().upload(), region);
+    }
+
+    /**
+     * Releases a packed region which will never be used by a texture, for example because the load of the texture
+     * was aborted. Can be called from any thread. Pages are removed once all their regions are released; the GL
+     * texture of a removed page is deleted on the main thread, by the next createTexture or texture unload.
+     * @param region the region returned by pack.
+     */
+    public synchronized void release(final AtlasRegion region) {
+        AtlasPage page = region.page();
+        if (page.release()) {
+            pages.remove(page);
+            if (page.getTexture() != null) {
+                releasedPages.add(page.getTexture());
+            }
+            LOGGER.debug("Removed empty page from texture atlas '{}' ({} pages)", name, pages.size());
+        }
+    }
+
+    /**
+     * Deletes the GL textures of the pages which were removed, must be called on the main thread.
+     */
+    synchronized void deleteReleasedPages() {
+        for (Texture texture : releasedPages) {
+            texture.unload();
+        }
+        releasedPages.clear();
+    }
+
+    /**
+     * @return the name of this atlas.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return a snapshot of the pages of this atlas.
+     */
+    public synchronized List<AtlasPage> getPages() {
+        return List.copyOf(pages);
+    }
+}
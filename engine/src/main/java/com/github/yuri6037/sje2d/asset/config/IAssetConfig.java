@@ -36,4 +36,14 @@ public interface IAssetConfig {
      * @param registry the type registry to build.
      */
     void populateTypeRegistry(TypeRegistry.Builder registry);
+
+    /**
+     * @return the maximum number of asset loader threads, 0 to use the number of available processors.
+     */
+    int getLoaderThreads();
+
+    /**
+     * @return true if asset loaders should run on virtual threads.
+     */
+    boolean useVirtualLoaders();
 }
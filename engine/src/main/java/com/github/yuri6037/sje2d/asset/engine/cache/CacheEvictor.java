@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the files of a cache directory under a size limit by deleting the least recently used ones.
+ * Cache hits update the modification time of their file, so that the modification time orders files by last use.
+ * The total size is computed by scanning the directory on the first write, then tracked as files are written.
+ */
+final class CacheEvictor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheEvictor.class);
+
+    private record CacheFile(Path path, long size, FileTime lastUse) {
+    }
+
+    private final Path directory;
+    private final String suffix;
+    private final long maxSize;
+    private long size = -1;
+
+    /**
+     * Creates a new CacheEvictor.
+     * @param directory the cache directory.
+     * @param suffix the suffix of the cache files, other files are ignored.
+     * @param maxSize the maximum total size in bytes of the cache files.
+     */
+    CacheEvictor(final Path directory, final String suffix, final long maxSize) {
+        this.directory = directory;
+        this.suffix = suffix;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Marks a cache file as used.
+     * @param path the path of the cache file.
+     */
+    void touch(final Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            LOGGER.debug("Failed to update last use of cache file '{}'", path, e);
+        }
+    }
+
+    private List<CacheFile> scan() throws IOException {
+        ArrayList<CacheFile> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(directory)) {
+            stream.filter((path) -> path.getFileName().toString().endsWith(suffix)).forEach((path) -> {
+                try {
+                    BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                    files.add(new CacheFile(path, attrs.size(), attrs.lastModifiedTime()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return files;
+    }
+
+    /**
+     * Records a newly written cache file and evicts the least recently used files if the cache is too large.
+     * Eviction goes down to 3/4 of the maximum size, so that it does not happen again on the next write.
+     * @param bytes the size of the new file.
+     */
+    synchronized void added(final long bytes) {
+        try {
+            if (size < 0) {
+                size = scan().stream().mapToLong(CacheFile::size).sum();
+            } else {
+                size += bytes;
+            }
+            if (size <= maxSize) {
+                return;
+            }
+            List<CacheFile> files = scan();
+            files.sort(Comparator.comparing(CacheFile::lastUse));
+            size = files.stream().mapToLong(CacheFile::size).sum();
+            int count = 0;
+            for (CacheFile file : files) {
+                if (size <= maxSize / 4 * 3) {
+                    break;
+                }
+                try {
+                    Files.deleteIfExists(file.path());
+                    size -= file.size();
+                    ++count;
+                } catch (IOException e) {
+                    LOGGER.debug("Failed to evict cache file '{}'", file.path(), e);
+                }
+            }
+            LOGGER.info("Evicted {} files from cache '{}', {} KB left", count, directory, size / 1024);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to scan cache directory '{}'", directory, e);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.cache;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A persistent content-addressed cache of decoded assets.
+ * Loaders which spend most of their time decoding (images, font bitmaps, animations) store their final texel
+ * buffer and a few integers of metadata under a key derived from the asset URL, the loader version and a hash of
+ * the source data. Cached entries are memory mapped on the next start so that decoding is skipped entirely.
+ * The default cache is disabled unless -Dcom.github.yuri6037.sje2d.cache=true is given; it then lives in
+ * ~/.sje2d/cache, which can be changed with -Dcom.github.yuri6037.sje2d.cacheDir=path. Each cache is limited to
+ * 256 MB by default (-Dcom.github.yuri6037.sje2d.cacheSize=megabytes), least recently used entries are evicted
+ * first.
+ */
+public final class DecodedCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DecodedCache.class);
+    private static final String PROP_DIR = "com.github.yuri6037.sje2d.cacheDir";
+    private static final String PROP_ENABLED = "com.github.yuri6037.sje2d.cache";
+    private static final String PROP_SIZE = "com.github.yuri6037.sje2d.cacheSize";
+    private static final long DEFAULT_SIZE_MB = 256;
+    private static final int MAGIC = 0x534A4443; //SJDC
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int DATA_ALIGNMENT = 16;
+
+    private static DecodedCache defaultCache = null;
+
+    private final Path directory;
+    private final CacheEvictor evictor;
+
+    /**
+     * A cached decoded asset.
+     * @param metadata the metadata stored with the asset (sizes, counts, etc).
+     * @param data the decoded data, a read-only buffer mapped from the cache file.
+     */
+    public record Entry(int[] metadata, ByteBuffer data) {
+    }
+
+    /**
+     * Creates a new DecodedCache with the default size limit.
+     * @param directory the directory to store cache files in or null to create a disabled cache.
+     */
+    public DecodedCache(final Path directory) {
+        this(directory, getDefaultMaxSize());
+    }
+
+    /**
+     * Creates a new DecodedCache.
+     * @param directory the directory to store cache files in or null to create a disabled cache.
+     * @param maxSize the maximum size in bytes of the cache files, least recently used entries are evicted first.
+     */
+    public DecodedCache(final Path directory, final long maxSize) {
+        this.directory = directory;
+        evictor = directory != null ? new CacheEvictor(directory, ".bin", maxSize) : null;
+    }
+
+    /**
+     * @return the default cache as configured by system properties.
+     */
+    public static synchronized DecodedCache getDefault() {
+        if (defaultCache == null) {
+            defaultCache = new DecodedCache(getDefaultDirectory());
+        }
+        return defaultCache;
+    }
+
+    /**
+     * @return the root cache directory as configured by system properties or null if caching is disabled.
+     */
+    static Path getDefaultDirectory() {
+        if (!Boolean.parseBoolean(System.getProperty(PROP_ENABLED, "false"))) {
+            return null;
+        }
+        String dir = System.getProperty(PROP_DIR);
+        return dir != null ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), ".sje2d", "cache");
+    }
+
+    /**
+     * @return the maximum size in bytes of each cache as configured by system properties.
+     */
+    static long getDefaultMaxSize() {
+        return Long.getLong(PROP_SIZE, DEFAULT_SIZE_MB) * 1024 * 1024;
+    }
+
+    /**
+     * Replaces the default cache.
+     * @param cache the new default cache.
+     */
+    public static synchronized void setDefault(final DecodedCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * @return true if this cache stores and returns entries.
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Computes the cache key of a decoded asset.
+     * @param url the URL of the asset.
+     * @param loader the name of the loader which decodes the asset.
+     * @param version the version of the loader, to be increased every time its output format changes.
+     * @param source the source data of the asset.
+     * @return the cache key.
+     */
+    public static String key(final AssetURL url, final String loader, final int version, final byte[] source) {
+        return key(url, loader, version, ByteBuffer.wrap(source));
+    }
+
+    /**
+     * Computes the cache key of a decoded asset.
+     * @param url the URL of the asset.
+     * @param loader the name of the loader which decodes the asset.
+     * @param version the version of the loader, to be increased every time its output format changes.
+     * @param source the source data of the asset, from its position up to its limit; the position is unchanged.
+     * @return the cache key.
+     */
+    public static String key(final AssetURL url, final String loader, final int version, final ByteBuffer source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((url + "\n" + loader + "\n" + version + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(source.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            //Every Java platform is required to implement SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path getPath(final String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".bin");
+    }
+
+    private static int align(final int offset) {
+        return (offset + DATA_ALIGNMENT - 1) / DATA_ALIGNMENT * DATA_ALIGNMENT;
+    }
+
+    private Entry invalid(final Path path) {
+        LOGGER.warn("Ignoring corrupted cache file '{}'", path);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete corrupted cache file '{}'", path, e);
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a decoded asset.
+     * @param key the cache key of the asset (see key).
+     * @return the cached entry or null if the asset is not in the cache.
+     */
+    public Entry get(final String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path path = getPath(key);
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return invalid(path);
+            }
+            //The mapping stays valid after the channel is closed.
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read cache file '{}'", path, e);
+            return null;
+        }
+        if (map.getInt(0) != MAGIC || map.getInt(4) != FORMAT_VERSION) {
+            return invalid(path);
+        }
+        int count = map.getInt(8);
+        if (count < 0 || HEADER_SIZE + (long) count * Integer.BYTES + Long.BYTES > map.capacity()) {
+            return invalid(path);
+        }
+        int[] metadata = new int[count];
+        for (int i = 0; i != count; ++i) {
+            metadata[i] = map.getInt(HEADER_SIZE + i * Integer.BYTES);
+        }
+        int offset = HEADER_SIZE + count * Integer.BYTES;
+        long length = map.getLong(offset);
+        int dataOffset = align(offset + Long.BYTES);
+        if (dataOffset + length != map.capacity()) {
+            return invalid(path);
+        }
+        evictor.touch(path);
+        return new Entry(metadata, map.slice(dataOffset, (int) length));
+    }
+
+    /**
+     * Stores a decoded asset. Failures are logged and otherwise ignored, the asset will simply be decoded again
+     * next time.
+     * @param key the cache key of the asset (see key).
+     * @param metadata the metadata to store with the asset.
+     * @param data the decoded data, from its first byte up to its limit.
+     */
+    public void put(final String key, final int[] metadata, final ByteBuffer data) {
+        if (directory == null) {
+            return;
+        }
+        Path path = getPath(key);
+        ByteBuffer src = data.duplicate();
+        src.rewind();
+        int offset = HEADER_SIZE + metadata.length * Integer.BYTES;
+        ByteBuffer header = ByteBuffer.allocate(align(offset + Long.BYTES));
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(metadata.length);
+        for (int value : metadata) {
+            header.putInt(value);
+        }
+        header.putLong(src.remaining());
+        header.rewind();
+        Path tmp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            //Write to a temporary file first so that concurrent readers never see a partial entry.
+            tmp = Files.createTempFile(path.getParent(), key, ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || src.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, src});
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evictor.added(header.capacity() + (long) src.limit());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write cache file '{}'", path, e);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e1) {
+                    LOGGER.warn("Failed to delete temporary cache file '{}'", tmp, e1);
+                }
+            }
+        }
+    }
+}
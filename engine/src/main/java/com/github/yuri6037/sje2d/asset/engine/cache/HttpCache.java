@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A persistent cache of assets downloaded over HTTP.
+ * Each entry keeps the response body together with its validators (ETag and Last-Modified) so that the next
+ * request for the same URL can be made conditional and answered by a 304 without transferring the body again.
+ * The default cache lives in the http sub-directory of the DecodedCache directory and follows the same system
+ * properties: it is disabled unless enabled explicitly and has its own size limit.
+ */
+public final class HttpCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpCache.class);
+    private static final int MAGIC = 0x534A4843; //SJHC
+    private static final int FORMAT_VERSION = 1;
+    private static final int DATA_ALIGNMENT = 16;
+
+    private static HttpCache defaultCache = null;
+
+    private final Path directory;
+    private final CacheEvictor evictor;
+
+    /**
+     * A cached HTTP response.
+     * @param etag the ETag of the response or null if none.
+     * @param lastModified the Last-Modified date of the response or null if none.
+     * @param mimeType the asset mime-type of the response or null if none.
+     * @param data the response body, a read-only buffer mapped from the cache file.
+     */
+    public record Entry(String etag, String lastModified, String mimeType, ByteBuffer data) {
+    }
+
+    /**
+     * Creates a new HttpCache with the default size limit.
+     * @param directory the directory to store cache files in or null to create a disabled cache.
+     */
+    public HttpCache(final Path directory) {
+        this(directory, DecodedCache.getDefaultMaxSize());
+    }
+
+    /**
+     * Creates a new HttpCache.
+     * @param directory the directory to store cache files in or null to create a disabled cache.
+     * @param maxSize the maximum size in bytes of the cache files, least recently used entries are evicted first.
+     */
+    public HttpCache(final Path directory, final long maxSize) {
+        this.directory = directory;
+        evictor = directory != null ? new CacheEvictor(directory, ".http", maxSize) : null;
+    }
+
+    /**
+     * @return the default cache as configured by system properties.
+     */
+    public static synchronized HttpCache getDefault() {
+        if (defaultCache == null) {
+            Path dir = DecodedCache.getDefaultDirectory();
+            defaultCache = new HttpCache(dir != null ? dir.resolve("http") : null);
+        }
+        return defaultCache;
+    }
+
+    /**
+     * Replaces the default cache.
+     * @param cache the new default cache.
+     */
+    public static synchronized void setDefault(final HttpCache cache) {
+        defaultCache = cache;
+    }
+
+    /**
+     * @return true if this cache stores and returns entries.
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Computes the cache key of a URL.
+     * @param url the URL which was requested.
+     * @return the cache key.
+     */
+    public static String key(final String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            //Every Java platform is required to implement SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Path getPath(final String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ".http");
+    }
+
+    private static int align(final int offset) {
+        return (offset + DATA_ALIGNMENT - 1) / DATA_ALIGNMENT * DATA_ALIGNMENT;
+    }
+
+    private static String getString(final ByteBuffer buffer) {
+        int len = buffer.getInt();
+        if (len < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toBytes(final String str) {
+        return str == null ? null : str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putString(final ByteBuffer buffer, final byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private Entry invalid(final Path path) {
+        LOGGER.warn("Ignoring corrupted cache file '{}'", path);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete corrupted cache file '{}'", path, e);
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a cached response.
+     * @param key the cache key of the URL (see key).
+     * @return the cached entry or null if the URL is not in the cache.
+     */
+    public Entry get(final String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path path = getPath(key);
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return invalid(path);
+            }
+            //The mapping stays valid after the channel is closed.
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read cache file '{}'", path, e);
+            return null;
+        }
+        try {
+            if (map.getInt() != MAGIC || map.getInt() != FORMAT_VERSION) {
+                return invalid(path);
+            }
+            String etag = getString(map);
+            String lastModified = getString(map);
+            String mimeType = getString(map);
+            long length = map.getLong();
+            int dataOffset = align(map.position());
+            if (dataOffset + length != map.capacity()) {
+                return invalid(path);
+            }
+            evictor.touch(path);
+            return new Entry(etag, lastModified, mimeType, map.slice(dataOffset, (int) length));
+        } catch (RuntimeException e) {
+            //Truncated header or string lengths pointing out of the file.
+            return invalid(path);
+        }
+    }
+
+    /**
+     * Stores a response. Failures are logged and otherwise ignored, the asset will simply be downloaded again
+     * next time.
+     * @param key the cache key of the URL (see key).
+     * @param etag the ETag of the response or null if none.
+     * @param lastModified the Last-Modified date of the response or null if none.
+     * @param mimeType the asset mime-type of the response or null if none.
+     * @param data the response body, from its first byte up to its limit.
+     */
+    public void put(final String key, final String etag, final String lastModified, final String mimeType,
+                    final ByteBuffer data) {
+        if (directory == null) {
+            return;
+        }
+        Path path = getPath(key);
+        ByteBuffer src = data.duplicate();
+        src.rewind();
+        byte[] etagBytes = toBytes(etag);
+        byte[] lastModifiedBytes = toBytes(lastModified);
+        byte[] mimeTypeBytes = toBytes(mimeType);
+        int offset = 2 * Integer.BYTES;
+        for (byte[] bytes : new byte[][]{etagBytes, lastModifiedBytes, mimeTypeBytes}) {
+            offset += Integer.BYTES + (bytes == null ? 0 : bytes.length);
+        }
+        ByteBuffer header = ByteBuffer.allocate(align(offset + Long.BYTES));
+        header.putInt(MAGIC).putInt(FORMAT_VERSION);
+        putString(header, etagBytes);
+        putString(header, lastModifiedBytes);
+        putString(header, mimeTypeBytes);
+        header.putLong(src.remaining());
+        header.rewind();
+        Path tmp = null;
+        try {
+            Files.createDirectories(path.getParent());
+            //Write to a temporary file first so that concurrent readers never see a partial entry.
+            tmp = Files.createTempFile(path.getParent(), key, ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || src.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, src});
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            evictor.added(header.capacity() + (long) src.limit());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write cache file '{}'", path, e);
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e1) {
+                    LOGGER.warn("Failed to delete temporary cache file '{}'", tmp, e1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.manager;
+
+import com.github.yuri6037.sje2d.asset.engine.map.AssetMap;
+import com.github.yuri6037.sje2d.asset.engine.system.ITypeRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+final class AssetEventScheduler implements IAssetScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AssetEventScheduler.class);
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(Constants.DEPENDENCY_TIMEOUT_MILLIS);
+    private final ExecutorService service;
+    private final PriorityTaskQueue tasks = new PriorityTaskQueue();
+    private final DependencyWaitList waitList;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicLong lastActivity = new AtomicLong(System.nanoTime());
+    private final BlockingQueue<AssetLoadTask.Result> outChannel;
+    private final ITypeRegistry registry;
+    private final AssetMap map;
+    private final Signal signal;
+
+    AssetEventScheduler(final ITypeRegistry registry, final AssetMap map,
+                        final BlockingQueue<AssetLoadTask.Result> outChannel, final Signal signal,
+                        final LoaderPool pool) {
+        this.registry = registry;
+        this.map = map;
+        this.outChannel = outChannel;
+        this.signal = signal;
+        service = pool.getService();
+        waitList = new DependencyWaitList(map);
+        LOGGER.debug("Solver V{} (event driven)", Constants.VERSION);
+    }
+
+    @Override
+    public void submit(final LoadHandle handle) {
+        inFlight.incrementAndGet();
+        lastActivity.set(System.nanoTime());
+        AssetLoadTask task = new AssetLoadTask(registry, map, handle);
+        handle.setCancelListener(() -> cancelWaiting(task));
+        run(task);
+    }
+
+    @Override
+    public void onMounted(final String vpath) {
+        lastActivity.set(System.nanoTime());
+        for (AssetLoadTask task : waitList.wake(vpath)) {
+            run(task);
+        }
+    }
+
+    @Override
+    public boolean isIdle() {
+        return inFlight.get() == 0;
+    }
+
+    private void finish() {
+        inFlight.decrementAndGet();
+        signal.fire();
+    }
+
+    private void run(final AssetLoadTask task) {
+        tasks.push(task);
+        CompletableFuture.supplyAsync(tasks::runNext, service).thenAccept(this::onStep);
+    }
+
+    private void cancelWaiting(final AssetLoadTask task) {
+        //A task which is not suspended is either running or queued, it will notice the cancellation on its next step.
+        synchronized (waitList) {
+            if (!waitList.remove(task)) {
+                return;
+            }
+        }
+        LOGGER.info("Cancelled asset '{}'", task);
+        task.abort();
+        finish();
+    }
+
+    private void scheduleTimeout(final AssetLoadTask task, final long delayNanos) {
+        Executor delayed = CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, service);
+        CompletableFuture.runAsync(() -> checkTimeout(task), delayed);
+    }
+
+    private void checkTimeout(final AssetLoadTask task) {
+        synchronized (waitList) {
+            if (!waitList.contains(task)) {
+                return; //The task was already woken up by a mount.
+            }
+            long idle = System.nanoTime() - Math.max(lastActivity.get(), task.getWaitingSince());
+            if (idle < TIMEOUT_NANOS || inFlight.get() > waitList.size()) {
+                //Other assets are still being submitted or loaded, they may provide the dependency so keep waiting.
+                scheduleTimeout(task, idle < TIMEOUT_NANOS ? TIMEOUT_NANOS - idle : TIMEOUT_NANOS);
+                return;
+            }
+            waitList.remove(task);
+        }
+        LOGGER.error("Failed to resolve dependency '{}' for '{}'", task.getMissingDependency(), task);
+        task.abort();
+        finish();
+    }
+
+    private void onStep(final AssetLoadTask task) {
+        if (task.isCancelled()) {
+            LOGGER.info("Cancelled asset '{}'", task);
+            task.abort();
+            finish();
+            return;
+        }
+        if (task.isNone()) {
+            LOGGER.info("Dropped asset '{}': loader won't produce any asset", task);
+            task.getHandle().getFuture().complete(null);
+            finish();
+            return;
+        }
+        AssetLoadTask.Result res = task.tryFinish();
+        if (res != null) {
+            LOGGER.info("Loaded asset '{}'", task);
+            try {
+                outChannel.put(res);
+            } catch (InterruptedException e) {
+                LOGGER.error("Failed to submit loaded asset '{}' to the manager", task, e);
+                Thread.currentThread().interrupt();
+            }
+            //Only decrement after the result is visible to the manager, otherwise waitAll could return early.
+            finish();
+            return;
+        }
+        if (!task.isAlive()) {
+            LOGGER.error("Failed to load asset '{}'", task);
+            task.abort();
+            finish();
+            return;
+        }
+        if (task.getMissingDependency() == null || !waitList.park(task)) {
+            run(task);
+        } else if (task.isCancelled()) {
+            cancelWaiting(task); //The task got cancelled before it was suspended.
+        } else {
+            scheduleTimeout(task, TIMEOUT_NANOS);
+        }
+    }
+}
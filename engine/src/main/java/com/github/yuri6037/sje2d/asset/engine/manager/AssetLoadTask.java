@@ -50,26 +50,31 @@ class AssetLoadTask implements Callable<AssetLoadTask> {
     private static final Logger LOGGER = LoggerFactory.getLogger(AssetLoadTask.class);
     private final ITypeRegistry registry;
     private final AssetMap map;
+    private final LoadHandle handle;
     private AssetURL url;
     private IAssetLoader loader = null;
-    private int ttl = Constants.MAX_ITERATIONS;
     private IAssetLoader.Result lastResult = null;
+    private String missingDependency = null;
+    private long waitingSince = 0;
+    private boolean aborted = false;
+    private Exception error = null;
     private final AssetDepMap deps = new AssetDepMap();
 
-    public record Result(IAssetLoader loader, Set<String> deps) {
+    public record Result(IAssetLoader loader, Set<String> deps, LoadHandle handle) {
     }
 
-    AssetLoadTask(final ITypeRegistry registry, final AssetMap map, final AssetURL url) {
+    AssetLoadTask(final ITypeRegistry registry, final AssetMap map, final LoadHandle handle) {
         this.registry = registry;
         this.map = map;
-        this.url = url;
+        this.handle = handle;
+        this.url = handle.getUrl();
     }
 
     public Result tryFinish() {
         if (loader == null || lastResult == null || !lastResult.isReady()) {
             return null;
         }
-        return new Result(loader, deps.toSet());
+        return new Result(loader, deps.toSet(), handle);
     }
 
     public boolean isNone() {
@@ -77,7 +82,67 @@ class AssetLoadTask implements Callable<AssetLoadTask> {
     }
 
     public boolean isAlive() {
-        return loader != null && ttl > 0;
+        return loader != null;
+    }
+
+    /**
+     * @return the handle which was returned to the user when this asset was queued.
+     */
+    public LoadHandle getHandle() {
+        return handle;
+    }
+
+    /**
+     * @return the priority of this task.
+     */
+    public Priority getPriority() {
+        return handle.getPriority();
+    }
+
+    /**
+     * @return true if the load of this asset has been cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return handle.isCancelled();
+    }
+
+    /**
+     * @return the virtual path of the dependency which could not be found during the last step or null if all
+     * requested dependencies were found.
+     */
+    public String getMissingDependency() {
+        return missingDependency;
+    }
+
+    /**
+     * @return the System.nanoTime timestamp at which this task started waiting for its missing dependency.
+     */
+    public long getWaitingSince() {
+        return waitingSince;
+    }
+
+    /**
+     * Gives up loading this asset and releases the locks held on its dependencies.
+     */
+    public synchronized void abort() {
+        if (aborted) {
+            return;
+        }
+        aborted = true;
+        for (String dep : deps.toSet()) {
+            map.unlock(dep);
+        }
+        if (loader != null) {
+            loader.abort();
+        }
+        loader = null;
+        if (missingDependency != null) {
+            handle.getFuture().completeExceptionally(new AssetLoadException("Failed to resolve dependency '"
+                    + missingDependency + "' for '" + url + "'", error));
+        } else {
+            handle.getFuture().completeExceptionally(new AssetLoadException("Failed to load asset '" + url + "'",
+                    error));
+        }
     }
 
     private String getGlobalAssetType(final AssetURL url1) {
@@ -150,22 +215,27 @@ class AssetLoadTask implements Callable<AssetLoadTask> {
             return true;
         } catch (Exception e) {
             LOGGER.error("Failed to create and/or initialize an asset loader", e);
+            error = e;
             return closeAndReturn(stream);
         }
     }
 
     private void step() throws Exception {
+        String lastMissing = missingDependency;
+        missingDependency = null;
         if (lastResult == null) {
             lastResult = loader.load(deps);
         }
         if (!lastResult.isReady()) {
-            Thread.sleep(Constants.ITERATION_WAIT_MILLIS);
             for (String dep : lastResult.getDependencies()) {
                 if (!deps.contains(dep)) {
                     AssetStore<?> store = map.lock(dep);
                     if (store == null) {
-                        LOGGER.warn("Dependency '{}' not found at iteration {}", dep,
-                                (Constants.MAX_ITERATIONS - ttl) + 1);
+                        LOGGER.debug("Dependency '{}' not found", dep);
+                        if (!dep.equals(lastMissing)) {
+                            waitingSince = System.nanoTime();
+                        }
+                        missingDependency = dep;
                         return;
                     }
                     deps.put(store);
@@ -177,6 +247,10 @@ class AssetLoadTask implements Callable<AssetLoadTask> {
 
     @Override
     public AssetLoadTask call() {
+        if (handle.isCancelled()) {
+            abort();
+            return this;
+        }
         if (loader == null) {
             if (!init()) {
                 loader = null;
@@ -185,9 +259,10 @@ class AssetLoadTask implements Callable<AssetLoadTask> {
         if (loader != null) {
             try {
                 step();
-                --ttl;
             } catch (Exception e) {
                 LOGGER.error("Failed to load asset '{}'", url, e);
+                error = e;
+                loader.abort();
                 loader = null;
             }
         }
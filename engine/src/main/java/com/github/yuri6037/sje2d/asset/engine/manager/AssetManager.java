@@ -32,72 +32,74 @@ package com.github.yuri6037.sje2d.asset.engine.manager;
 
 import com.github.yuri6037.sje2d.asset.engine.map.AssetMap;
 import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
-import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.map.LeakDetector;
 import com.github.yuri6037.sje2d.asset.engine.system.ITypeRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AssetManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(AssetManager.class);
 
-    private final ITypeRegistry registry;
     private final AssetMap map = new AssetMap();
-    private final HashMap<String, ArrayList<String>> dependentsMap = new HashMap<>();
-    private final ArrayBlockingQueue<Command> channel = new ArrayBlockingQueue<>(128);
-    private final ArrayBlockingQueue<AssetURL> schedulerInChannel = new ArrayBlockingQueue<>(64);
-    private final ArrayBlockingQueue<AssetLoadTask.Result> schedulerOutChannel = new ArrayBlockingQueue<>(64);
-    private Thread schedulerThread = null;
+    private final ConcurrentLinkedQueue<Command> channel = new ConcurrentLinkedQueue<>();
+    private final LinkedBlockingQueue<AssetLoadTask.Result> schedulerOutChannel = new LinkedBlockingQueue<>();
+    private final IAssetScheduler scheduler;
     private final AtomicInteger opCount = new AtomicInteger(0);
+    private final AtomicLong ticketCounter = new AtomicLong(0);
+    private final Signal signal = new Signal();
+    private final LoaderPool pool;
 
     /**
-     * Creates a new AssetManager with the given type registry.
+     * Creates a new AssetManager with the given type registry and the default (polling) scheduler.
      * @param registry the type registry.
      */
     public AssetManager(final ITypeRegistry registry) {
-        this.registry = registry;
+        this(registry, SchedulerType.Polling);
     }
 
-    private boolean isInUse(final String vpath) {
-        //Check if this asset is in use.
-        AssetStore<?> store = map.get(vpath);
-        if (store == null) { //If the asset does not exist, then it can't be in use.
-            return false;
-        }
-        if (store.getUses() > 0) {
-            return true;
-        }
-        //Check if any asset which has this asset as dependency is still in use.
-        List<String> deps = dependentsMap.get(vpath);
-        if (deps == null) { //If there are no dependents, return early.
-            return false;
-        }
-        for (String v : deps) {
-            if (isInUse(v)) {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Creates a new AssetManager with the given type registry and scheduler.
+     * @param registry the type registry.
+     * @param schedulerType the type of scheduler to use to solve and load assets.
+     */
+    public AssetManager(final ITypeRegistry registry, final SchedulerType schedulerType) {
+        this(registry, schedulerType, LoaderPool.getShared());
     }
 
-    private boolean isLocked(final String vpath) {
-        if (map.isLocked(vpath)) {
-            return true;
+    /**
+     * Creates a new AssetManager with the given type registry, scheduler and loader pool.
+     * @param registry the type registry.
+     * @param schedulerType the type of scheduler to use to solve and load assets.
+     * @param pool the pool to run loaders on.
+     */
+    public AssetManager(final ITypeRegistry registry, final SchedulerType schedulerType, final LoaderPool pool) {
+        this.pool = pool;
+        scheduler = switch (schedulerType) {
+            case Polling -> new AssetSchedulerThread(registry, map, schedulerOutChannel, signal, pool);
+            case Event -> new AssetEventScheduler(registry, map, schedulerOutChannel, signal, pool);
+        };
+    }
+
+    private void logOpenRefs(final String vpath) {
+        if (!LeakDetector.isEnabled()) {
+            return;
         }
-        List<String> deps = dependentsMap.get(vpath);
-        if (deps != null) {
-            for (String v: deps) {
-                if (isLocked(v)) {
-                    return true;
-                }
-            }
+        AssetStore<?> store = map.get(vpath);
+        if (store == null) {
+            return;
+        }
+        for (Throwable site : store.getOpenRefSites()) {
+            LOGGER.warn("Asset '{}' is still referenced", vpath, site);
+        }
+        for (String v : map.getDependents(vpath)) {
+            logOpenRefs(v);
         }
-        return false;
     }
 
     private void unloadUnchecked(final String vpath) {
@@ -106,52 +108,43 @@ public class AssetManager {
             return;
         }
         //Unload all assets that has this asset as dependency.
-        List<String> deps = dependentsMap.get(vpath);
-        if (deps != null) {
-            for (String v: deps) {
-                unloadUnchecked(v);
-            }
+        for (String v : map.getDependents(vpath)) {
+            unloadUnchecked(v);
         }
         //Unload this asset.
         try {
             store.getAsset().unload();
         } finally {
             map.remove(vpath);
-            dependentsMap.remove(vpath);
-            // TODO: possible memory leak: if the leaf asset is unloaded first, then the dependentsMap may contain
-            //  references to the leaf asset if the leaf assets has dependencies
             LOGGER.info("Unloaded asset '{}'", vpath);
         }
     }
 
     private boolean unload(final String vpath) {
-        if (isLocked(vpath)) {
+        if (map.isLocked(vpath)) {
             LOGGER.error("Failed to unload '{}': asset is locked", vpath);
             return false;
         }
-        if (isInUse(vpath)) {
+        if (map.isInUse(vpath)) {
             LOGGER.error("Failed to unload '{}': asset still in use", vpath);
+            logOpenRefs(vpath);
             return false;
         }
         unloadUnchecked(vpath);
         return true;
     }
 
-    private List<String> getAllAssetsInNamespace(final String namespace) {
-        final String fuckingjava = namespace + "/"; //Add a '/' at the end of the namespace to mark the end of it.
-        return map.filter((store) -> store.getVirtualPath().startsWith(fuckingjava));
-    }
-
     private void unloadNamespace(final String namespace) {
-        List<String> assets = getAllAssetsInNamespace(namespace);
+        List<String> assets = map.getAllInNamespace(namespace);
         for (String vpath: assets) {
-            if (isLocked(vpath)) {
+            if (map.isLocked(vpath)) {
                 LOGGER.error("Failed to unload namespace '{}': namespace contains locked assets", namespace);
                 return;
             }
-            if (isInUse(vpath)) {
+            if (map.isInUse(vpath)) {
                 LOGGER.error("Failed to unload namespace '{}': namespace has some assets which are still in use",
                         namespace);
+                logOpenRefs(vpath);
                 return;
             }
         }
@@ -162,67 +155,122 @@ public class AssetManager {
         }
     }
 
-    private void queue(final AssetURL url) {
-        if (schedulerThread == null || !schedulerThread.isAlive()) {
-            schedulerThread = AssetSchedulerThread.create(registry, map, schedulerInChannel, schedulerOutChannel);
-        }
-        try {
-            schedulerInChannel.put(url);
-        } catch (InterruptedException e) {
-            LOGGER.error("Failed to submit asset to scheduler", e);
+    private void queue(final LoadHandle handle) {
+        if (handle.isCancelled()) {
+            LOGGER.info("Cancelled asset '{}'", handle);
+            return;
         }
+        scheduler.submit(handle);
     }
 
     private void mountAsset(final AssetLoadTask.Result res) throws Exception {
         if (res == null) {
             return;
         }
+        if (res.handle().isCancelled()) {
+            LOGGER.info("Cancelled asset '{}'", res.handle());
+            for (String dep : res.deps()) {
+                map.unlock(dep);
+            }
+            res.loader().abort();
+            return;
+        }
         AssetStore<?> store = res.loader().create();
+        map.push(store, res.deps());
         for (String dep : res.deps()) {
-            if (!dependentsMap.containsKey(dep)) {
-                dependentsMap.put(dep, new ArrayList<>());
-            }
-            dependentsMap.get(dep).add(store.getVirtualPath());
             map.unlock(dep);
         }
         LOGGER.info("Mounted asset '{}'", store.getVirtualPath());
-        map.push(store);
+        scheduler.onMounted(store.getVirtualPath());
+        res.handle().getFuture().complete(store);
     }
 
     /**
      * Waits for all operations to finish.
      */
     public void waitAll() throws InterruptedException {
-        while ((schedulerThread != null && schedulerThread.getState() != Thread.State.TERMINATED)
-                || !schedulerOutChannel.isEmpty() || !channel.isEmpty()) {
-            update();
-            //noinspection BusyWait
-            Thread.sleep(100);
+        while (true) {
+            long seen = signal.version();
+            update(Long.MAX_VALUE);
+            if (scheduler.isIdle() && schedulerOutChannel.isEmpty() && channel.isEmpty()) {
+                break;
+            }
+            //Sleep until an operation is queued, an asset is loaded or the scheduler becomes idle.
+            signal.await(seen);
         }
     }
 
     /**
-     * Updates this AssetManager.
+     * Shuts down the loader pool of this AssetManager. Assets which are still loading are abandoned.
+     * The engine-wide shared pool is left running as other managers may use it, it is shut down by
+     * LoaderPool.shutdownShared or replaced by LoaderPool.configure.
      */
-    //Unfortunately java refuses to allow this only on the corresponding line so disable it for the entire function
-    public void update() {
-        if (!schedulerOutChannel.isEmpty()) {
-            try {
-                AssetLoadTask.Result res = schedulerOutChannel.take();
-                mountAsset(res);
-            } catch (Exception e) {
-                LOGGER.error("Failed to mount asset", e);
-            }
+    public void shutdown() {
+        if (pool.isShared()) {
+            return;
         }
-        if (!channel.isEmpty()) {
-            Command cmd = channel.poll();
+        pool.shutdown();
+    }
+
+    private void runCommand(final Command cmd) {
+        try {
             switch (cmd.type()) {
                 case UnloadNamespace -> unloadNamespace((String) cmd.arg());
                 case Unload -> unload((String) cmd.arg());
-                case Queue -> queue((AssetURL) cmd.arg());
+                case Queue -> queue((LoadHandle) cmd.arg());
             }
+        } finally {
+            //Always account for the operation, even if an asset threw while unloading.
             opCount.addAndGet(-1);
+            cmd.ticket().complete();
+            signal.fire();
+        }
+    }
+
+    /**
+     * Updates this AssetManager using the default time budget (see Constants.UPDATE_BUDGET_NANOS).
+     */
+    public void update() {
+        update(Constants.UPDATE_BUDGET_NANOS);
+    }
+
+    /**
+     * Updates this AssetManager by mounting loaded assets and running queued commands until the given time budget
+     * is exhausted. At least one loaded asset and one command are always processed, if available.
+     * @param budgetNanos the maximum time in nanoseconds to spend in this update.
+     * @return statistics about this update.
+     */
+    public UpdateStats update(final long budgetNanos) {
+        long start = System.nanoTime();
+        int mounted = 0;
+        int executed = 0;
+        while (true) {
+            AssetLoadTask.Result res = schedulerOutChannel.poll();
+            if (res != null) {
+                try {
+                    mountAsset(res);
+                    ++mounted;
+                } catch (Exception e) {
+                    LOGGER.error("Failed to mount asset", e);
+                    res.loader().abort();
+                    res.handle().getFuture().completeExceptionally(new AssetLoadException("Failed to mount asset '"
+                            + res.handle() + "'", e));
+                }
+            }
+            Command cmd = channel.poll();
+            if (cmd != null) {
+                runCommand(cmd);
+                ++executed;
+            }
+            if ((res == null && cmd == null) || System.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+        }
+        int deferred = schedulerOutChannel.size() + opCount.get();
+        if (deferred > 0) {
+            LOGGER.debug("Deferred {} asset operation(s) to the next update", deferred);
         }
+        return new UpdateStats(mounted, executed, deferred);
     }
 
     /**
@@ -230,6 +278,6 @@ public class AssetManager {
      * @return a new AssetManagerProxy.
      */
     public AssetManagerProxy newProxy() {
-        return new AssetManagerProxy(map, channel, opCount);
+        return new AssetManagerProxy(map, channel, opCount, ticketCounter, signal);
     }
 }
@@ -38,14 +38,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AssetManagerProxy {
     private static final Logger LOGGER = LoggerFactory.getLogger(AssetManagerProxy.class);
     private final AssetMap map;
-    private final ArrayBlockingQueue<Command> channel;
+    private final ConcurrentLinkedQueue<Command> channel;
     private final AtomicInteger opCount;
+    private final AtomicLong ticketCounter;
+    private final Signal signal;
 
     @SuppressWarnings("unchecked")
     private static <T extends IAsset> AssetStore<T> tryCast(final Class<T> c, final AssetStore<?> store) {
@@ -57,10 +61,13 @@ public class AssetManagerProxy {
         }
     }
 
-    AssetManagerProxy(final AssetMap map, final ArrayBlockingQueue<Command> channel, final AtomicInteger opCount) {
+    AssetManagerProxy(final AssetMap map, final ConcurrentLinkedQueue<Command> channel,
+                      final AtomicInteger opCount, final AtomicLong ticketCounter, final Signal signal) {
         this.map = map;
         this.channel = channel;
         this.opCount = opCount;
+        this.ticketCounter = ticketCounter;
+        this.signal = signal;
     }
 
     /**
@@ -92,7 +99,7 @@ public class AssetManagerProxy {
      * @return a list of all known assets of that type.
      */
     public <T extends IAsset> List<String> getAllAssetsOfType(final Class<T> c) {
-        return map.filter((store) -> AssetManagerProxy.tryCast(c, store) != null);
+        return map.getAllOfType(c);
     }
 
     /**
@@ -104,9 +111,7 @@ public class AssetManagerProxy {
      * @return a list of all known assets of that type in the specified namespace.
      */
     public <T extends IAsset> List<String> getAllAssetsOfType(final Class<T> c, final String namespace) {
-        final String fuckingjava = namespace + "/"; //Add a '/' at the end of the namespace to mark the end of it.
-        return map.filter((store) -> store.getVirtualPath().startsWith(fuckingjava) && AssetManagerProxy
-                .tryCast(c, store) != null);
+        return map.getAllOfType(c, namespace);
     }
 
     /**
@@ -116,8 +121,7 @@ public class AssetManagerProxy {
      * @return a list of all assets found in the namespace.
      */
     public List<String> getAllAssetsInNamespace(final String namespace) {
-        final String fuckingjava = namespace + "/"; //Add a '/' at the end of the namespace to mark the end of it.
-        return map.filter((store) -> store.getVirtualPath().startsWith(fuckingjava));
+        return map.getAllInNamespace(namespace);
     }
 
     /**
@@ -136,16 +140,20 @@ public class AssetManagerProxy {
         return store.getUses() > 0;
     }
 
-    private int queueOperation(final Command command) {
-        int ops = opCount.get();
-        try {
-            channel.put(command);
-            opCount.set(ops + 1);
-            return ops + 1;
-        } catch (InterruptedException e) {
-            LOGGER.error("Failed to queue operation", e);
-            return ops;
-        }
+    private Ticket newTicket() {
+        return new Ticket(ticketCounter.incrementAndGet());
+    }
+
+    private Ticket queueOperation(final Command.Type type, final Object arg) {
+        return queueOperation(type, arg, newTicket());
+    }
+
+    private Ticket queueOperation(final Command.Type type, final Object arg, final Ticket ticket) {
+        //Count the operation before it becomes visible to the manager so that the count never goes below zero.
+        opCount.incrementAndGet();
+        channel.add(new Command(type, arg, ticket));
+        signal.fire();
+        return ticket;
     }
 
     /**
@@ -166,30 +174,101 @@ public class AssetManagerProxy {
      * Waits for all remaining operations to finish.
      */
     public void waitRemainingOperations() throws InterruptedException {
-        while (getOperationCount() > 0) {
-            //noinspection BusyWait
-            Thread.sleep(100);
+        while (true) {
+            long seen = signal.version();
+            if (getOperationCount() <= 0) {
+                break;
+            }
+            signal.await(seen);
         }
     }
 
+    /**
+     * Adds a URL to the queue of assets that needs to be loaded with the Visible priority.
+     *
+     * @param url the URL of the asset to load.
+     * @return a handle which can be used to cancel the load or to wait for the queue operation.
+     */
+    public LoadHandle queue(final AssetURL url) {
+        return queue(url, Priority.Visible);
+    }
+
     /**
      * Adds a URL to the queue of assets that needs to be loaded.
      *
+     * @param url      the URL of the asset to load.
+     * @param priority the priority of the asset; more urgent assets are loaded first.
+     * @return a handle which can be used to cancel the load or to wait for the queue operation.
+     */
+    public LoadHandle queue(final AssetURL url, final Priority priority) {
+        LoadHandle handle = new LoadHandle(url, priority, newTicket());
+        queueOperation(Command.Type.Queue, handle, handle.getTicket());
+        return handle;
+    }
+
+    /**
+     * Adds a URL to the queue of assets that needs to be loaded with the Visible priority and returns a future
+     * completed once the asset is mounted.
+     *
+     * @param c   the asset class, this is required because the java compiler has a defect.
      * @param url the URL of the asset to load.
-     * @return the number of queued operations
+     * @param <T> the type of asset to load.
+     * @return a future completed on the AssetManager thread with a reference to the asset (see the other overload).
+     */
+    public <T extends IAsset> CompletableFuture<AssetStore<T>.Ref> queueAsync(final Class<T> c, final AssetURL url) {
+        return queueAsync(c, url, Priority.Visible);
+    }
+
+    /**
+     * Adds a URL to the queue of assets that needs to be loaded and returns a future completed once the asset is
+     * mounted. Dependent actions run on the AssetManager thread (ie. the thread calling AssetManager.update).
+     *
+     * @param c        the asset class, this is required because the java compiler has a defect.
+     * @param url      the URL of the asset to load.
+     * @param priority the priority of the asset; more urgent assets are loaded first.
+     * @param <T>      the type of asset to load.
+     * @return a future completed with a reference to the asset, with null if the loader did not produce any asset,
+     * exceptionally with an AssetLoadException if the asset failed to load or with a ClassCastException if the asset
+     * type does not match.
      */
-    public int queue(final AssetURL url) {
-        return queueOperation(new Command(Command.Type.Queue, url));
+    public <T extends IAsset> CompletableFuture<AssetStore<T>.Ref> queueAsync(final Class<T> c, final AssetURL url,
+                                                                           final Priority priority) {
+        return queue(url, priority).getFuture().thenApply((store) -> {
+            if (store == null) {
+                return null;
+            }
+            AssetStore<T> store1 = AssetManagerProxy.tryCast(c, store);
+            if (store1 == null) {
+                throw new ClassCastException("Asset '" + store.getVirtualPath() + "' is not a " + c.getName());
+            }
+            return store1.new Ref();
+        });
+    }
+
+    /**
+     * Adds a URL to the queue of assets that needs to be loaded unless the underlying AssetManager is already
+     * lagging behind (see Constants.COMMAND_QUEUE_SOFT_LIMIT). This never blocks: callers which must not stall, such
+     * as the render thread, should use this and retry later when it returns null.
+     *
+     * @param url      the URL of the asset to load.
+     * @param priority the priority of the asset; more urgent assets are loaded first.
+     * @return a handle which can be used to cancel the load or null if the asset was not queued.
+     */
+    public LoadHandle tryQueue(final AssetURL url, final Priority priority) {
+        if (opCount.get() >= Constants.COMMAND_QUEUE_SOFT_LIMIT) {
+            return null;
+        }
+        return queue(url, priority);
     }
 
     /**
      * Attempts to unload a namespace.
      *
      * @param namespace the namespace to unload.
-     * @return the number of queued operations
+     * @return a ticket which completes once the operation has been executed.
      */
-    public int unloadNamespace(final String namespace) {
-        return queueOperation(new Command(Command.Type.UnloadNamespace, namespace));
+    public Ticket unloadNamespace(final String namespace) {
+        return queueOperation(Command.Type.UnloadNamespace, namespace);
     }
 
     /**
@@ -197,9 +276,9 @@ public class AssetManagerProxy {
      * NOTE: for safety reasons, this checks if the asset is currently in use or that it is locked.
      *
      * @param vpath the virtual path of the asset.
-     * @return the number of queued operations
+     * @return a ticket which completes once the operation has been executed.
      */
-    public int unload(final String vpath) {
-        return queueOperation(new Command(Command.Type.Unload, vpath));
+    public Ticket unload(final String vpath) {
+        return queueOperation(Command.Type.Unload, vpath);
     }
 }
@@ -31,61 +31,149 @@
 package com.github.yuri6037.sje2d.asset.engine.manager;
 
 import com.github.yuri6037.sje2d.asset.engine.map.AssetMap;
-import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.system.ITypeRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
-final class AssetSchedulerThread implements Runnable {
+final class AssetSchedulerThread implements IAssetScheduler, Runnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(AssetSchedulerThread.class);
-    private final ExecutorService service = Executors.newWorkStealingPool(4);
+    private static final long TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(Constants.DEPENDENCY_TIMEOUT_MILLIS);
+    private final ExecutorService service;
     private final ArrayList<Future<AssetLoadTask>> queue = new ArrayList<>();
-    private final ArrayBlockingQueue<AssetURL> inChannel;
-    private final ArrayBlockingQueue<AssetLoadTask.Result> outChannel;
+    private final PriorityTaskQueue tasks = new PriorityTaskQueue();
+    private final ConcurrentLinkedQueue<LoadHandle> inChannel = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<AssetLoadTask> woken = new ConcurrentLinkedQueue<>();
+    private final DependencyWaitList waitList;
+    private final BlockingQueue<AssetLoadTask.Result> outChannel;
     private final ITypeRegistry registry;
     private final AssetMap map;
+    private final Signal signal;
+    private final AtomicLong lastActivity = new AtomicLong(System.nanoTime());
+    private Thread thread = null;
 
-    private AssetSchedulerThread(final ITypeRegistry registry, final AssetMap map,
-                                 final ArrayBlockingQueue<AssetURL> inChannel,
-                                 final ArrayBlockingQueue<AssetLoadTask.Result> outChannel) {
+    AssetSchedulerThread(final ITypeRegistry registry, final AssetMap map,
+                         final BlockingQueue<AssetLoadTask.Result> outChannel, final Signal signal,
+                         final LoaderPool pool) {
         this.registry = registry;
         this.map = map;
-        this.inChannel = inChannel;
         this.outChannel = outChannel;
+        this.signal = signal;
+        service = pool.getService();
+        waitList = new DependencyWaitList(map);
     }
 
-    public static Thread create(final ITypeRegistry registry, final AssetMap map,
-                                final ArrayBlockingQueue<AssetURL> inChannel,
-                                final ArrayBlockingQueue<AssetLoadTask.Result> outChannel) {
-        Thread thread = new Thread(new AssetSchedulerThread(registry, map, inChannel, outChannel));
-        thread.setName("Asset Scheduler");
-        thread.start();
-        return thread;
+    @Override
+    public void submit(final LoadHandle handle) {
+        lastActivity.set(System.nanoTime());
+        inChannel.add(handle);
+        wakeUp();
     }
 
-    private void emptyInChannel() {
-        try {
-            while (!inChannel.isEmpty()) {
-                AssetURL url = inChannel.take();
-                queue.add(service.submit(new AssetLoadTask(registry, map, url)));
-            }
-        } catch (InterruptedException e) {
-            LOGGER.error("An error has occurred while emptying the input channel", e);
+    private synchronized void wakeUp() {
+        //The URL or task must be in its channel before checking the thread, otherwise a terminating thread could
+        //miss it.
+        if (thread == null) {
+            thread = new Thread(this);
+            thread.setName("Asset Scheduler");
+            thread.start();
+        } else {
+            notifyAll();
         }
     }
 
     @Override
-    public void run() {
-        LOGGER.info("Starting asset scheduler thread");
-        LOGGER.debug("Solver V{}", Constants.VERSION);
-        emptyInChannel();
+    public void onMounted(final String vpath) {
+        lastActivity.set(System.nanoTime());
+        List<AssetLoadTask> list = waitList.wake(vpath);
+        if (!list.isEmpty()) {
+            woken.addAll(list);
+            wakeUp();
+        }
+    }
+
+    @Override
+    public synchronized boolean isIdle() {
+        return thread == null && inChannel.isEmpty() && woken.isEmpty();
+    }
+
+    private synchronized boolean tryTerminate() {
+        if (!inChannel.isEmpty() || !woken.isEmpty()) {
+            return false;
+        }
+        if (waitList.size() > 0) {
+            //Suspended tasks are woken up by onMounted, this only wakes up to check their timeouts.
+            try {
+                wait(Constants.DEPENDENCY_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                LOGGER.error("The scheduler has been interrupted while waiting for dependencies", e);
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+        thread = null;
+        signal.fire();
+        return true;
+    }
+
+    private void abortTimedOut() {
+        for (AssetLoadTask task : waitList.removeIf(this::isTimedOut)) {
+            LOGGER.error("Failed to resolve dependency '{}' for '{}'", task.getMissingDependency(), task);
+            task.abort();
+        }
+    }
+
+    private void run(final AssetLoadTask task) {
+        tasks.push(task);
+        queue.add(service.submit(tasks::runNext));
+    }
+
+    private void emptyInChannel() {
+        for (LoadHandle handle = inChannel.poll(); handle != null; handle = inChannel.poll()) {
+            AssetLoadTask task = new AssetLoadTask(registry, map, handle);
+            handle.setCancelListener(() -> cancelWaiting(task));
+            run(task);
+        }
+        for (AssetLoadTask task = woken.poll(); task != null; task = woken.poll()) {
+            run(task);
+        }
+    }
+
+    private void cancelWaiting(final AssetLoadTask task) {
+        //Running the task again is enough for it to notice the cancellation.
+        if (waitList.remove(task)) {
+            woken.add(task);
+            wakeUp();
+        }
+    }
+
+    private boolean isTimedOut(final AssetLoadTask task) {
+        if (task.getMissingDependency() == null) {
+            return false;
+        }
+        long idle = System.nanoTime() - Math.max(lastActivity.get(), task.getWaitingSince());
+        return idle >= TIMEOUT_NANOS;
+    }
+
+    private void resubmit(final AssetLoadTask task) {
+        //A task waiting for a dependency is suspended until the dependency gets mounted instead of being polled.
+        if (task.getMissingDependency() == null || !waitList.park(task)) {
+            run(task);
+        } else if (task.isCancelled()) {
+            cancelWaiting(task); //The task got cancelled before it was suspended.
+        }
+    }
+
+    private boolean solve() {
         while (!queue.isEmpty()) {
             for (int i = queue.size() - 1; i != -1; --i) {
                 Future<AssetLoadTask> item = queue.get(i);
@@ -93,30 +181,56 @@ final class AssetSchedulerThread implements Runnable {
                     queue.remove(i);
                     try {
                         AssetLoadTask res = item.get();
+                        if (res.isCancelled()) {
+                            LOGGER.info("Cancelled asset '{}'", res);
+                            res.abort();
+                            continue;
+                        }
                         if (res.isNone()) {
                             LOGGER.info("Dropped asset '{}': loader won't produce any asset", res);
+                            res.getHandle().getFuture().complete(null);
                             continue;
                         }
                         AssetLoadTask.Result res1 = res.tryFinish();
                         if (res1 != null) {
                             LOGGER.info("Loaded asset '{}'", res);
                             outChannel.put(res1);
+                            signal.fire();
                         } else {
-                            if (res.isAlive()) {
+                            if (res.isAlive() && !isTimedOut(res)) {
                                 emptyInChannel();
-                                queue.add(service.submit(res));
+                                resubmit(res);
                             } else {
                                 LOGGER.error("Failed to resolve dependencies for '{}'", res);
+                                res.abort();
                             }
                         }
                     } catch (InterruptedException | ExecutionException e) {
                         LOGGER.error("The scheduler has been interrupted, terminating...", e);
-                        return;
+                        return false;
                     }
                 }
             }
             emptyInChannel();
         }
+        return true;
+    }
+
+    @Override
+    public void run() {
+        LOGGER.info("Starting asset scheduler thread");
+        LOGGER.debug("Solver V{}", Constants.VERSION);
+        do {
+            emptyInChannel();
+            if (!solve()) {
+                synchronized (this) {
+                    thread = null;
+                }
+                signal.fire();
+                return;
+            }
+            abortTimedOut();
+        } while (!tryTerminate());
         LOGGER.info("Terminating asset scheduler thread");
     }
 }
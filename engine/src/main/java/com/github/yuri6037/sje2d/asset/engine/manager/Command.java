@@ -30,7 +30,7 @@
 
 package com.github.yuri6037.sje2d.asset.engine.manager;
 
-record Command(Type type, Object arg) {
+record Command(Type type, Object arg, Ticket ticket) {
     public enum Type {
         /**
          * Command to unload a namespace of assets.
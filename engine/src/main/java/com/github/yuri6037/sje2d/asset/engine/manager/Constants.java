@@ -32,19 +32,26 @@ package com.github.yuri6037.sje2d.asset.engine.manager;
 
 public final class Constants {
     /**
-     * Maximum number of iterations for the solver before giving up.
+     * Number of milliseconds a task may wait for a missing dependency, without any asset being submitted or mounted,
+     * before the solver gives up.
      */
-    public static final int MAX_ITERATIONS = 32;
+    public static final int DEPENDENCY_TIMEOUT_MILLIS = 5000;
 
     /**
-     * Number of milliseconds to wait between solver iterations.
+     * Default time budget in nanoseconds of a single AssetManager update.
      */
-    public static final int ITERATION_WAIT_MILLIS = 200;
+    public static final long UPDATE_BUDGET_NANOS = 2000000;
+
+    /**
+     * Number of pending commands above which AssetManagerProxy.tryQueue refuses new assets. This is only a hint to
+     * callers which must not stall, the command queue itself is unbounded.
+     */
+    public static final int COMMAND_QUEUE_SOFT_LIMIT = 128;
 
     /**
      * Version of the solver.
      */
-    public static final String VERSION = "1.2.0";
+    public static final String VERSION = "1.4.0";
 
     private Constants() {
     }
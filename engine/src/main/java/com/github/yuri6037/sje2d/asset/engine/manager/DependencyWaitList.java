@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.manager;
+
+import com.github.yuri6037.sje2d.asset.engine.map.AssetMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A list of suspended load tasks keyed by the virtual path of the dependency each task is waiting for.
+ */
+final class DependencyWaitList {
+    private final HashMap<String, ArrayList<AssetLoadTask>> waiting = new HashMap<>();
+    private final AssetMap map;
+    private int size = 0;
+
+    DependencyWaitList(final AssetMap map) {
+        this.map = map;
+    }
+
+    /**
+     * Suspends a task until its missing dependency is mounted.
+     * @param task the task to suspend.
+     * @return false if the dependency was mounted in the meantime, in which case the task is not suspended and
+     * should be run again immediately.
+     */
+    synchronized boolean park(final AssetLoadTask task) {
+        String dep = task.getMissingDependency();
+        if (map.get(dep) != null) {
+            return false;
+        }
+        waiting.computeIfAbsent(dep, (k) -> new ArrayList<>()).add(task);
+        ++size;
+        return true;
+    }
+
+    /**
+     * Removes and returns all tasks waiting for a given dependency.
+     * @param vpath the virtual path of the newly mounted dependency.
+     * @return the list of tasks to wake up.
+     */
+    synchronized List<AssetLoadTask> wake(final String vpath) {
+        ArrayList<AssetLoadTask> tasks = waiting.remove(vpath);
+        if (tasks == null) {
+            return Collections.emptyList();
+        }
+        size -= tasks.size();
+        return tasks;
+    }
+
+    /**
+     * Removes a single task from this wait list.
+     * @param task the task to remove.
+     * @return true if the task was suspended, false otherwise.
+     */
+    synchronized boolean remove(final AssetLoadTask task) {
+        ArrayList<AssetLoadTask> tasks = waiting.get(task.getMissingDependency());
+        if (tasks == null || !tasks.remove(task)) {
+            return false;
+        }
+        if (tasks.isEmpty()) {
+            waiting.remove(task.getMissingDependency());
+        }
+        --size;
+        return true;
+    }
+
+    /**
+     * Removes all suspended tasks matching a predicate.
+     * @param filter the predicate selecting the tasks to remove.
+     * @return the list of removed tasks.
+     */
+    synchronized List<AssetLoadTask> removeIf(final Predicate<AssetLoadTask> filter) {
+        ArrayList<AssetLoadTask> removed = new ArrayList<>();
+        for (ArrayList<AssetLoadTask> tasks : waiting.values()) {
+            tasks.removeIf((task) -> filter.test(task) && removed.add(task));
+        }
+        waiting.values().removeIf(ArrayList::isEmpty);
+        size -= removed.size();
+        return removed;
+    }
+
+    /**
+     * Checks whether a task is suspended in this wait list.
+     * @param task the task to check.
+     * @return true if the task is suspended, false otherwise.
+     */
+    synchronized boolean contains(final AssetLoadTask task) {
+        ArrayList<AssetLoadTask> tasks = waiting.get(task.getMissingDependency());
+        return tasks != null && tasks.contains(task);
+    }
+
+    /**
+     * @return the number of suspended tasks.
+     */
+    synchronized int size() {
+        return size;
+    }
+}
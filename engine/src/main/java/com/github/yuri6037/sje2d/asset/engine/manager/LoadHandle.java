@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.manager;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A handle to an asset queued for loading, which can be used to cancel the load or to wait for the queue operation.
+ */
+public final class LoadHandle {
+    private final AssetURL url;
+    private final Priority priority;
+    private final Ticket ticket;
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+    private final CompletableFuture<AssetStore<?>> future = new CompletableFuture<>();
+    private volatile Runnable cancelListener = null;
+
+    LoadHandle(final AssetURL url, final Priority priority, final Ticket ticket) {
+        this.url = url;
+        this.priority = priority;
+        this.ticket = ticket;
+    }
+
+    /**
+     * @return the URL of the asset to load.
+     */
+    public AssetURL getUrl() {
+        return url;
+    }
+
+    /**
+     * @return the priority of this load.
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+
+    /**
+     * The ticket completes once the AssetManager has executed the queue operation, that is once the asset has been
+     * handed to the scheduler or dropped because the load was cancelled. Use AssetManagerProxy.queueAsync to wait
+     * for the asset to be mounted.
+     * @return the ticket of the queue operation of this load.
+     */
+    public Ticket getTicket() {
+        return ticket;
+    }
+
+    /**
+     * Cancels this load. A cancelled asset is dropped at the next step of its loader, which frees its worker, and
+     * is never mounted. This has no effect if the asset has already been mounted.
+     */
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            future.cancel(false);
+            Runnable listener = cancelListener;
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * @return true if this load has been cancelled, false otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * @return the future completed with the store of the asset once it is mounted, with null if the loader did not
+     * produce any asset or exceptionally if the asset failed to load or was cancelled.
+     */
+    CompletableFuture<AssetStore<?>> getFuture() {
+        return future;
+    }
+
+    /**
+     * Sets the action to run when this load is cancelled. The action runs on the thread calling cancel.
+     * @param listener the action to run.
+     */
+    void setCancelListener(final Runnable listener) {
+        cancelListener = listener;
+    }
+
+    @Override
+    public String toString() {
+        return url.toString();
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The worker threads shared by all asset schedulers of the engine.
+ * Loader tasks run on a bounded pool of platform threads, or on virtual threads in virtual mode when the JVM supports
+ * them, which suits I/O-bound loaders. Loaders waiting for dependencies do not hold a thread: they return and are
+ * stepped again once their dependencies are mounted.
+ */
+public final class LoaderPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoaderPool.class);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 1000;
+
+    private static LoaderPool shared = null;
+
+    private final ExecutorService service;
+    private final int threads;
+    private final boolean virtual;
+
+    /**
+     * Creates a new LoaderPool.
+     * @param threads the maximum number of loader threads, 0 or less to use the number of available processors.
+     * @param virtual true to run loaders on virtual threads.
+     */
+    public LoaderPool(final int threads, final boolean virtual) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService virtualService = virtual ? newVirtualExecutor() : null;
+        this.virtual = virtualService != null;
+        service = this.virtual ? virtualService
+                : Executors.newFixedThreadPool(this.threads, new NamedThreadFactory("Asset Loader"));
+        LOGGER.debug("Created loader pool: threads={}, virtual={}", this.threads, this.virtual);
+    }
+
+    private static ExecutorService newVirtualExecutor() {
+        try {
+            //Virtual threads only exist since Java 21, the engine targets Java 17.
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.warn("Virtual threads are not supported by this JVM, using platform threads");
+            return null;
+        }
+    }
+
+    /**
+     * Returns the engine-wide loader pool, creating a default one if none is configured or if it was shut down.
+     * @return the shared loader pool.
+     */
+    public static synchronized LoaderPool getShared() {
+        if (shared == null || shared.isShutdown()) {
+            shared = new LoaderPool(0, false);
+        }
+        return shared;
+    }
+
+    /**
+     * Replaces the engine-wide loader pool. The previous pool is shut down.
+     * @param threads the maximum number of loader threads, 0 or less to use the number of available processors.
+     * @param virtual true to run loaders on virtual threads.
+     * @return the new shared loader pool.
+     */
+    public static synchronized LoaderPool configure(final int threads, final boolean virtual) {
+        if (shared != null) {
+            shared.shutdown();
+        }
+        shared = new LoaderPool(threads, virtual);
+        return shared;
+    }
+
+    /**
+     * Shuts down the engine-wide loader pool if one exists. Managers using it must not load assets anymore.
+     */
+    public static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.shutdown();
+            shared = null;
+        }
+    }
+
+    /**
+     * @return true if this pool is the engine-wide loader pool.
+     */
+    public boolean isShared() {
+        synchronized (LoaderPool.class) {
+            return this == shared;
+        }
+    }
+
+    /**
+     * @return the bounded executor running loader tasks.
+     */
+    ExecutorService getService() {
+        return service;
+    }
+
+    /**
+     * @return the maximum number of loader threads, ignored in virtual mode.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return true if loaders run on virtual threads.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return true if this pool has been shut down.
+     */
+    public boolean isShutdown() {
+        return service.isShutdown();
+    }
+
+    /**
+     * Shuts down this pool, interrupting loaders which are still running after a short grace period.
+     */
+    public void shutdown() {
+        service.shutdown();
+        try {
+            if (!service.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                service.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            service.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.debug("Loader pool shut down");
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger(0);
+        private final String name;
+
+        NamedThreadFactory(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            Thread thread = new Thread(r, name + " #" + counter.incrementAndGet());
+            //Loaders must never keep the JVM alive after the application has terminated.
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A queue of load tasks ordered by priority, then by submission order.
+ * Schedulers push a task then submit runNext to their worker pool: whichever worker picks it up steps the most
+ * urgent pending task instead of the task which was pushed.
+ */
+final class PriorityTaskQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriorityTaskQueue.class);
+
+    private record Entry(AssetLoadTask task, long sequence) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing((Entry e) -> e.task().getPriority())
+            .thenComparingLong(Entry::sequence);
+
+    private final PriorityBlockingQueue<Entry> queue = new PriorityBlockingQueue<>(16, ORDER);
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    /**
+     * Adds a task to this queue. Each push must be followed by exactly one call to runNext.
+     * @param task the task to add.
+     */
+    void push(final AssetLoadTask task) {
+        queue.add(new Entry(task, sequence.getAndIncrement()));
+    }
+
+    /**
+     * Steps the most urgent task in this queue.
+     * @return the task which was stepped.
+     */
+    AssetLoadTask runNext() {
+        AssetLoadTask task = queue.remove().task();
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            LOGGER.error("Unexpected error while loading asset '{}'", task, e);
+            task.abort();
+            return task;
+        }
+    }
+}
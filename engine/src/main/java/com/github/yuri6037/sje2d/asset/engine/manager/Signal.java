@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.manager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A monotonic event counter used to wake up threads waiting for the asset manager to make progress.
+ * Waiters read the version, check their condition and then wait for the version to change, so an event fired
+ * between the check and the wait is never missed.
+ */
+final class Signal {
+    private final AtomicLong version = new AtomicLong(0);
+    private volatile int waiters = 0;
+
+    /**
+     * Notifies all waiting threads that something changed. This only takes a lock when some thread is waiting.
+     */
+    void fire() {
+        version.incrementAndGet();
+        if (waiters > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return the current version of this signal.
+     */
+    long version() {
+        return version.get();
+    }
+
+    /**
+     * Waits until this signal is fired after the given version was read.
+     * @param seen the version read before checking the wait condition.
+     * @throws InterruptedException if the current thread got interrupted.
+     */
+    synchronized void await(final long seen) throws InterruptedException {
+        //The waiter count is published before reading the version: a concurrent fire either bumped the version
+        //already or sees the waiter and notifies it once this thread is waiting.
+        ++waiters;
+        try {
+            while (version.get() == seen) {
+                wait();
+            }
+        } finally {
+            --waiters;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.manager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A ticket identifying a single operation queued on an AssetManager, which completes once the AssetManager has
+ * executed that operation.
+ */
+public final class Ticket {
+    private final long id;
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    Ticket(final long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return the unique number of this ticket; tickets are numbered in the order they were issued.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return true if the operation has been executed, false otherwise.
+     */
+    public boolean isDone() {
+        return latch.getCount() == 0;
+    }
+
+    /**
+     * Waits for the operation to be executed.
+     * NOTE: this must not be called from the thread which updates the AssetManager.
+     * @throws InterruptedException if the current thread got interrupted.
+     */
+    public void await() throws InterruptedException {
+        latch.await();
+    }
+
+    /**
+     * Waits for the operation to be executed for at most the given time.
+     * NOTE: this must not be called from the thread which updates the AssetManager.
+     * @param timeout the maximum time to wait.
+     * @param unit the unit of the timeout argument.
+     * @return true if the operation has been executed, false if the timeout elapsed.
+     * @throws InterruptedException if the current thread got interrupted.
+     */
+    public boolean await(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return latch.await(timeout, unit);
+    }
+
+    void complete() {
+        latch.countDown();
+    }
+
+    @Override
+    public String toString() {
+        return "#" + id;
+    }
+}
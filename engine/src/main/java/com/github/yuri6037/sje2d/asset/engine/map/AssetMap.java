@@ -33,23 +33,224 @@ package com.github.yuri6037.sje2d.asset.engine.map;
 import com.github.yuri6037.sje2d.asset.engine.system.IAsset;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * This class is a global thread safe shared storage structure for all assets.
+ * Lookups never block: each entry holds its own atomic lock count instead of sharing a global lock map.
+ * The map also indexes dependencies between assets in both directions. Each entry counts whether it is itself used
+ * or locked plus the number of its direct dependents which are used or locked, directly or not, so that checking
+ * whether an asset can be unloaded does not require walking the dependency graph. Only transitions of these counts
+ * between zero and non-zero propagate to dependencies, which bounds the cost of a change by the number of
+ * dependency links, even when the graph has many paths between two assets. Propagation only uses atomic operations
+ * so that references can be acquired and released without blocking.
+ * Finally, assets are indexed by namespace and by type so that listing them costs proportional to the result size.
  */
 public final class AssetMap {
-    private final HashMap<String, AssetStore<? extends IAsset>> map = new HashMap<>();
-    private final HashMap<String, Integer> lockMap = new HashMap<>();
+    private static final int DEAD = -1;
 
     /**
-     * Adds a new asset to this map.
+     * The contribution of an asset to the counters of a target: a dependency, or the asset itself for its own use
+     * and lock counts. Each flag is 1 when the contribution is counted by the target, 0 when it is not and DEAD once
+     * the link is removed.
+     */
+    private static final class Link {
+        private final Node target;
+        private final AtomicInteger used = new AtomicInteger(0);
+        private final AtomicInteger locked = new AtomicInteger(0);
+
+        Link(final Node target) {
+            this.target = target;
+        }
+    }
+
+    static final class Node {
+        private final AssetStore<?> store;
+        private final AtomicInteger locks;
+        private final AtomicInteger used = new AtomicInteger(0);
+        private final AtomicInteger locked = new AtomicInteger(0);
+        private final Link self = new Link(this);
+        private final CopyOnWriteArrayList<Link> dependencies = new CopyOnWriteArrayList<>();
+        private final ArrayList<Node> dependents = new ArrayList<>();
+
+        Node(final AssetStore<?> store, final AtomicInteger locks) {
+            this.store = store;
+            this.locks = locks;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Node> map = new ConcurrentHashMap<>();
+    private final PathTrie paths = new PathTrie();
+    private final HashMap<Class<?>, HashSet<String>> types = new HashMap<>();
+
+    //Queries run under the read lock, changes to the graph and the indices take the write lock. Use and lock
+    //counters never take it.
+    private final ReadWriteLock graphLock = new ReentrantReadWriteLock();
+
+    private static void sync(final AtomicInteger flag, final AtomicInteger source, final Node target,
+                             final boolean used) {
+        //The source is read again after each change of the flag, so the flag always ends up matching the last
+        //state of the source even when several threads race on it.
+        while (true) {
+            int current = flag.get();
+            int active = source.get() > 0 ? 1 : 0;
+            if (current == DEAD || current == active) {
+                return;
+            }
+            if (flag.compareAndSet(current, active)) {
+                add(target, used, active - current);
+            }
+        }
+    }
+
+    private static void add(final Node node, final boolean used, final int delta) {
+        int old = (used ? node.used : node.locked).getAndAdd(delta);
+        if (old > 0 != old + delta > 0) {
+            syncDependencies(node, used);
+        }
+    }
+
+    private static void syncDependencies(final Node node, final boolean used) {
+        for (Link link : node.dependencies) {
+            sync(used ? link.used : link.locked, used ? node.used : node.locked, link.target, used);
+        }
+    }
+
+    private static void syncLink(final Link link, final Node source) {
+        sync(link.used, source.used, link.target, true);
+        sync(link.locked, source.locked, link.target, false);
+    }
+
+    private static void kill(final Link link) {
+        if (link.used.getAndSet(DEAD) == 1) {
+            add(link.target, true, -1);
+        }
+        if (link.locked.getAndSet(DEAD) == 1) {
+            add(link.target, false, -1);
+        }
+    }
+
+    /**
+     * Propagates a change of the use count of a store attached to this map to all its dependencies.
+     * @param node the node of the store which use count changed.
+     */
+    static void changeUses(final Node node) {
+        sync(node.self.used, node.store.getUseCount(), node, true);
+    }
+
+    private void changeLocks(final String vpath, final Node node) {
+        sync(node.self.locked, node.locks, node, false);
+        //The lock count is shared with the node replacing this one when an asset is mounted again under the same
+        //path. If that node missed this change, it is synced here.
+        Node current = map.get(vpath);
+        if (current != null && current != node && current.locks == node.locks) {
+            sync(current.self.locked, current.locks, current, false);
+        }
+    }
+
+    private void unindexType(final AssetStore<?> store) {
+        if (store.getAsset() == null) {
+            return;
+        }
+        HashSet<String> set = types.get(store.getAsset().getClass());
+        if (set != null) {
+            set.remove(store.getVirtualPath());
+            if (set.isEmpty()) {
+                types.remove(store.getAsset().getClass());
+            }
+        }
+    }
+
+    private static boolean dependsOn(final Node node, final Node dep) {
+        for (Link link : node.dependencies) {
+            if (link.target == dep) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void detach(final Node node) {
+        for (Link link : node.dependencies) {
+            link.target.dependents.remove(node);
+            kill(link);
+        }
+        for (Node dependent : node.dependents) {
+            for (Link link : dependent.dependencies) {
+                if (link.target == node) {
+                    dependent.dependencies.remove(link);
+                    kill(link);
+                }
+            }
+        }
+        kill(node.self);
+        node.dependencies.clear();
+        node.dependents.clear();
+        node.store.setNode(null);
+    }
+
+    /**
+     * Adds a new asset with no dependencies to this map.
      * @param store the asset store to add.
      */
     public void push(final AssetStore<?> store) {
-        synchronized (map) {
-            map.put(store.getVirtualPath(), store);
+        push(store, List.of());
+    }
+
+    /**
+     * Adds a new asset to this map.
+     * If an asset already exists with the same virtual path, it is replaced and its dependents are moved to the
+     * new asset.
+     * @param store the asset store to add.
+     * @param dependencies the virtual paths of all dependencies of the asset; dependencies which are not in this map
+     *                     are ignored.
+     */
+    public void push(final AssetStore<?> store, final Collection<String> dependencies) {
+        graphLock.writeLock().lock();
+        try {
+            Node old = map.get(store.getVirtualPath());
+            //Keep the dependents and the lock count of the previous asset mounted under the same virtual path.
+            Node node = new Node(store, old == null ? new AtomicInteger(0) : old.locks);
+            ArrayList<Node> dependents = new ArrayList<>();
+            if (old != null) {
+                unindexType(old.store);
+                dependents.addAll(old.dependents);
+                detach(old);
+            }
+            for (String vpath : dependencies) {
+                Node dep = map.get(vpath);
+                if (dep != null && !dependsOn(node, dep)) {
+                    node.dependencies.add(new Link(dep));
+                    dep.dependents.add(node);
+                }
+            }
+            store.setNode(node);
+            map.put(store.getVirtualPath(), node);
+            //Counters are synced once the node is reachable: a concurrent change is either seen here or syncs the
+            //node itself.
+            sync(node.self.used, store.getUseCount(), node, true);
+            sync(node.self.locked, node.locks, node, false);
+            for (Node dependent : dependents) {
+                Link link = new Link(node);
+                dependent.dependencies.add(link);
+                node.dependents.add(dependent);
+                syncLink(link, dependent);
+            }
+            paths.add(store.getVirtualPath());
+            if (store.getAsset() != null) {
+                types.computeIfAbsent(store.getAsset().getClass(), (k) -> new HashSet<>()).add(store.getVirtualPath());
+            }
+        } finally {
+            graphLock.writeLock().unlock();
         }
     }
 
@@ -57,18 +258,24 @@ public final class AssetMap {
      * @return the total number of assets stored in this map.
      */
     public int len() {
-        synchronized (map) {
-            return map.size();
-        }
+        return map.size();
     }
 
     /**
-     * Removes an asset from this map.
+     * Removes an asset from this map along with all links to its dependencies and dependents.
      * @param vpath the virtual path of the asset to remove.
      */
     public void remove(final String vpath) {
-        synchronized (map) {
-            map.remove(vpath);
+        graphLock.writeLock().lock();
+        try {
+            Node node = map.remove(vpath);
+            if (node != null) {
+                detach(node);
+                paths.remove(vpath);
+                unindexType(node.store);
+            }
+        } finally {
+            graphLock.writeLock().unlock();
         }
     }
 
@@ -78,9 +285,8 @@ public final class AssetMap {
      * @return null if the corresponding asset store could not be found, otherwise the associated asset store.
      */
     public AssetStore<?> get(final String vpath) {
-        synchronized (map) {
-            return map.get(vpath);
-        }
+        Node node = map.get(vpath);
+        return node == null ? null : node.store;
     }
 
     /**
@@ -92,20 +298,13 @@ public final class AssetMap {
      * @return the matching asset store or null if not found.
      */
     public AssetStore<?> lock(final String vpath) {
-        synchronized (map) {
-            AssetStore<?> store = map.get(vpath);
-            if (store != null) {
-                synchronized (lockMap) {
-                    if (!lockMap.containsKey(vpath)) {
-                        lockMap.put(vpath, 1);
-                    } else {
-                        lockMap.put(vpath, lockMap.get(vpath) + 1);
-                    }
-                }
-                return store;
-            }
+        Node node = map.get(vpath);
+        if (node == null) {
             return null;
         }
+        node.locks.incrementAndGet();
+        changeLocks(vpath, node);
+        return node.store;
     }
 
     /**
@@ -115,39 +314,134 @@ public final class AssetMap {
      */
     public List<String> filter(final IFilter filter) {
         ArrayList<String> list = new ArrayList<>();
-        synchronized (map) {
-            for (AssetStore<?> value : map.values()) {
-                if (filter.accept(value)) {
-                    list.add(value.getVirtualPath());
+        for (Node value : map.values()) {
+            if (filter.accept(value.store)) {
+                list.add(value.store.getVirtualPath());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Lists all assets in a given namespace.
+     * @param namespace the namespace.
+     * @return the virtual paths of all assets which virtual path starts with the namespace followed by a '/'.
+     */
+    public List<String> getAllInNamespace(final String namespace) {
+        ArrayList<String> list = new ArrayList<>();
+        graphLock.readLock().lock();
+        try {
+            paths.collect(namespace, list);
+        } finally {
+            graphLock.readLock().unlock();
+        }
+        return list;
+    }
+
+    /**
+     * Lists all assets of a given type.
+     * @param c the asset class; assets of a subclass are included.
+     * @return the virtual paths of all assets of that type.
+     */
+    public List<String> getAllOfType(final Class<? extends IAsset> c) {
+        ArrayList<String> list = new ArrayList<>();
+        graphLock.readLock().lock();
+        try {
+            for (Map.Entry<Class<?>, HashSet<String>> entry : types.entrySet()) {
+                if (c.isAssignableFrom(entry.getKey())) {
+                    list.addAll(entry.getValue());
                 }
             }
+        } finally {
+            graphLock.readLock().unlock();
         }
         return list;
     }
 
+    /**
+     * Lists all assets of a given type in a given namespace.
+     * @param c the asset class; assets of a subclass are included.
+     * @param namespace the namespace.
+     * @return the virtual paths of all assets of that type in the namespace.
+     */
+    public List<String> getAllOfType(final Class<? extends IAsset> c, final String namespace) {
+        List<String> list = getAllInNamespace(namespace);
+        list.removeIf((vpath) -> {
+            AssetStore<?> store = get(vpath);
+            return store == null || !c.isInstance(store.getAsset());
+        });
+        return list;
+    }
+
     /**
      * Unlocks a given asset virtual path. This has no effect if the asset is not already locked.
      * @param vpath the virtual path of the asset to unlock.
      */
     public void unlock(final String vpath) {
-        synchronized (lockMap) {
-            Integer value = lockMap.get(vpath);
-            if (value != null && value > 1) {
-                lockMap.put(vpath, value - 1);
-            } else {
-                lockMap.remove(vpath);
-            }
+        Node node = map.get(vpath);
+        if (node != null && node.locks.getAndUpdate((v) -> v > 0 ? v - 1 : 0) > 0) {
+            changeLocks(vpath, node);
         }
     }
 
     /**
-     * Checks whether an asset is locked.
+     * Checks whether an asset or any asset which depends on it, directly or not, is locked.
      * @param vpath the virtual path of the asset.
      * @return true if the asset is locked, false otherwise.
      */
     public boolean isLocked(final String vpath) {
-        synchronized (lockMap) {
-            return lockMap.containsKey(vpath);
+        Node node = map.get(vpath);
+        return node != null && node.locked.get() > 0;
+    }
+
+    /**
+     * Checks whether an asset or any asset which depends on it, directly or not, is in use.
+     * @param vpath the virtual path of the asset.
+     * @return true if the asset is in use, false otherwise.
+     */
+    public boolean isInUse(final String vpath) {
+        Node node = map.get(vpath);
+        return node != null && node.used.get() > 0;
+    }
+
+    private List<String> toPaths(final String vpath, final boolean dependents) {
+        graphLock.readLock().lock();
+        try {
+            Node node = map.get(vpath);
+            if (node == null) {
+                return List.of();
+            }
+            ArrayList<String> list = new ArrayList<>();
+            if (dependents) {
+                for (Node n : node.dependents) {
+                    list.add(n.store.getVirtualPath());
+                }
+            } else {
+                for (Link link : node.dependencies) {
+                    list.add(link.target.store.getVirtualPath());
+                }
+            }
+            return list;
+        } finally {
+            graphLock.readLock().unlock();
         }
     }
+
+    /**
+     * Lists the assets which directly depend on a given asset.
+     * @param vpath the virtual path of the asset.
+     * @return the virtual paths of all direct dependents of the asset.
+     */
+    public List<String> getDependents(final String vpath) {
+        return toPaths(vpath, true);
+    }
+
+    /**
+     * Lists the direct dependencies of a given asset.
+     * @param vpath the virtual path of the asset.
+     * @return the virtual paths of all direct dependencies of the asset.
+     */
+    public List<String> getDependencies(final String vpath) {
+        return toPaths(vpath, false);
+    }
 }
@@ -32,10 +32,21 @@ package com.github.yuri6037.sje2d.asset.engine.map;
 
 import com.github.yuri6037.sje2d.asset.engine.system.IAsset;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class AssetStore<T extends IAsset> {
     private final String vpath;
 
-    private int uses;
+    private final AtomicInteger uses = new AtomicInteger(0);
+
+    private final Set<LeakDetector.Site> openRefs = ConcurrentHashMap.newKeySet();
+
+    private volatile AssetMap.Node node;
 
     private final T asset;
 
@@ -47,7 +58,28 @@ public class AssetStore<T extends IAsset> {
     public AssetStore(final String vpath, final T asset) {
         this.vpath = vpath;
         this.asset = asset;
-        uses = 0;
+    }
+
+    final AssetMap.Node getNode() {
+        return node;
+    }
+
+    final void setNode(final AssetMap.Node node1) {
+        node = node1;
+    }
+
+    final AtomicInteger getUseCount() {
+        return uses;
+    }
+
+    private void addUse(final int delta) {
+        uses.addAndGet(delta);
+        //AssetMap.push attaches the node before reading the use count, so either this sees the node or push sees
+        //this change.
+        AssetMap.Node n = node;
+        if (n != null) {
+            AssetMap.changeUses(n);
+        }
     }
 
     /**
@@ -63,7 +95,16 @@ public class AssetStore<T extends IAsset> {
      * @return the number of uses of the asset.
      */
     public int getUses() {
-        return uses;
+        return uses.get();
+    }
+
+    /**
+     * Lists where the currently open references of this asset were acquired.
+     * This is always empty when the LeakDetector is disabled.
+     * @return the acquisition site of each open reference.
+     */
+    public List<Throwable> getOpenRefSites() {
+        return new ArrayList<>(openRefs);
     }
 
     /**
@@ -74,11 +115,18 @@ public class AssetStore<T extends IAsset> {
     }
 
     public class Ref implements AutoCloseable {
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private final LeakDetector.Site site;
+
         /**
          * Creates a new reference linked to this store and increments the number of uses.
          */
         public Ref() {
-            uses += 1;
+            addUse(1);
+            site = LeakDetector.track(this, vpath, closed);
+            if (site != null) {
+                openRefs.add(site);
+            }
         }
 
         /**
@@ -89,11 +137,17 @@ public class AssetStore<T extends IAsset> {
         }
 
         /**
-         * Closes this reference and decrements the number of uses.
+         * Closes this reference and decrements the number of uses. Closing an already closed reference has no effect.
          */
         @Override
         public void close() {
-            uses -= 1;
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (site != null) {
+                openRefs.remove(site);
+            }
+            addUse(-1);
         }
 
         /**
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Debug helper which records where each asset reference was acquired.
+ * When enabled, references which are garbage collected without being closed are logged with their acquisition
+ * site and the sites of all currently open references of an asset are available from AssetStore.
+ * Detection is disabled by default because capturing a stack trace for every reference is expensive; it can be
+ * enabled at start-up with -Dcom.github.yuri6037.sje2d.leakDetection=true or at runtime with setEnabled.
+ */
+public final class LeakDetector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LeakDetector.class);
+    private static final String PROP = "com.github.yuri6037.sje2d.leakDetection";
+
+    private static volatile boolean enabled = Boolean.getBoolean(PROP);
+
+    private LeakDetector() {
+    }
+
+    private static final class CleanerHolder {
+        private static final Cleaner CLEANER = Cleaner.create();
+    }
+
+    static final class Site extends Throwable implements Runnable {
+        private final String vpath;
+        private final AtomicBoolean closed;
+
+        Site(final String vpath, final AtomicBoolean closed) {
+            super("Reference to '" + vpath + "' acquired here");
+            this.vpath = vpath;
+            this.closed = closed;
+            //Strip the frames of the reference tracking itself so that the trace starts at the caller.
+            StackTraceElement[] trace = getStackTrace();
+            int start = 0;
+            while (start < trace.length && (trace[start].getClassName().equals(LeakDetector.class.getName())
+                    || trace[start].getClassName().startsWith(AssetStore.class.getName()))) {
+                ++start;
+            }
+            setStackTrace(Arrays.copyOfRange(trace, start, trace.length));
+        }
+
+        @Override
+        public void run() {
+            if (!closed.get()) {
+                LOGGER.error("Reference to '{}' was never closed", vpath, this);
+            }
+        }
+    }
+
+    /**
+     * Enables or disables leak detection. This only affects references created after this call.
+     * @param enabled1 true to enable leak detection, false otherwise.
+     */
+    public static void setEnabled(final boolean enabled1) {
+        enabled = enabled1;
+    }
+
+    /**
+     * @return true if leak detection is enabled, false otherwise.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static Site track(final Object ref, final String vpath, final AtomicBoolean closed) {
+        if (!enabled) {
+            return null;
+        }
+        Site site = new Site(vpath, closed);
+        CleanerHolder.CLEANER.register(ref, site);
+        return site;
+    }
+}
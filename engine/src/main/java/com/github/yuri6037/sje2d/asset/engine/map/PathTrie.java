@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.map;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A trie of virtual paths split on '/' used to list the assets of a namespace without scanning all assets.
+ * This class is not thread safe.
+ */
+final class PathTrie {
+    private static final class TrieNode {
+        private final HashMap<String, TrieNode> children = new HashMap<>();
+        private String vpath;
+    }
+
+    private final TrieNode root = new TrieNode();
+
+    private static String[] split(final String path) {
+        return path.split("/", -1);
+    }
+
+    /**
+     * Adds a virtual path to this trie.
+     * @param vpath the virtual path to add.
+     */
+    void add(final String vpath) {
+        TrieNode node = root;
+        for (String segment : split(vpath)) {
+            node = node.children.computeIfAbsent(segment, (k) -> new TrieNode());
+        }
+        node.vpath = vpath;
+    }
+
+    private static boolean remove(final TrieNode node, final String[] segments, final int index) {
+        if (index == segments.length) {
+            node.vpath = null;
+        } else {
+            TrieNode child = node.children.get(segments[index]);
+            if (child != null && remove(child, segments, index + 1)) {
+                node.children.remove(segments[index]);
+            }
+        }
+        return node.vpath == null && node.children.isEmpty();
+    }
+
+    /**
+     * Removes a virtual path from this trie and prunes the branches which became empty.
+     * @param vpath the virtual path to remove.
+     */
+    void remove(final String vpath) {
+        remove(root, split(vpath), 0);
+    }
+
+    private static void collect(final TrieNode node, final List<String> out) {
+        for (TrieNode child : node.children.values()) {
+            if (child.vpath != null) {
+                out.add(child.vpath);
+            }
+            collect(child, out);
+        }
+    }
+
+    /**
+     * Lists all virtual paths in a namespace, that is all paths which start with the namespace followed by a '/'.
+     * @param namespace the namespace to list.
+     * @param out the list to append the virtual paths to.
+     */
+    void collect(final String namespace, final List<String> out) {
+        TrieNode node = root;
+        for (String segment : split(namespace)) {
+            node = node.children.get(segment);
+            if (node == null) {
+                return;
+            }
+        }
+        collect(node, out);
+    }
+}
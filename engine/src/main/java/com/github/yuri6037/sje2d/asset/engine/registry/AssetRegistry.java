@@ -31,8 +31,10 @@
 package com.github.yuri6037.sje2d.asset.engine.registry;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import com.github.yuri6037.sje2d.asset.engine.manager.AssetManagerProxy;
+import com.github.yuri6037.sje2d.asset.engine.manager.Ticket;
 
 public final class AssetRegistry {
     private final ArrayList<String> namespaces = new ArrayList<>();
@@ -57,17 +59,16 @@ public final class AssetRegistry {
     /**
      * Unloads this asset registry.
      * @param proxy the target AssetManagerProxy.
-     * @return the number of operations queued.
+     * @return the tickets of all queued operations.
      */
-    public int unload(final AssetManagerProxy proxy) {
-        int lastOps = proxy.getOperationCount();
-        int ops = 0;
+    public List<Ticket> unload(final AssetManagerProxy proxy) {
+        ArrayList<Ticket> tickets = new ArrayList<>();
         for (String namespace: namespaces) {
-            ops = proxy.unloadNamespace(namespace);
+            tickets.add(proxy.unloadNamespace(namespace));
         }
         for (String vpath: assets) {
-            ops = proxy.unload(vpath);
+            tickets.add(proxy.unload(vpath));
         }
-        return ops - lastOps < 0 ? 0 : ops - lastOps;
+        return tickets;
     }
 }
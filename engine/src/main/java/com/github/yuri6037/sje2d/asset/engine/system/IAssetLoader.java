@@ -106,6 +106,14 @@ public interface IAssetLoader {
      */
     Result load(AssetDepMap dependencies) throws Exception;
 
+    /**
+     * Function called when the solver gives up on this loader (dependency timeout, cancellation or failure), or when
+     * the asset is cancelled or fails to be created after loading. Loaders which keep resources or threads between
+     * calls to load and create should release them here.
+     */
+    default void abort() {
+    }
+
     /**
      * Function called in the main thread to create the final asset.
      * This is the point where any platform (OpenGL, OpenAL, etc) calls are safe to perform.
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.system.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A seekable asset stream reading from a ByteBuffer, typically a slice of a memory mapped file.
+ * Reads copy straight out of the buffer without any system call.
+ */
+public final class ByteBufferStream implements ISeekableAssetStream, IByteBufferStream {
+    private final ByteBuffer buffer;
+    private final String mimeType;
+    private Closeable onClose;
+
+    /**
+     * Creates a new ByteBufferStream over the content of a buffer, from its first byte up to its limit.
+     * @param buffer the buffer to read from, it is duplicated so that its position is left untouched.
+     * @param mimeType the mime-type of the asset or null if unknown.
+     */
+    public ByteBufferStream(final ByteBuffer buffer, final String mimeType) {
+        this(buffer, mimeType, null);
+    }
+
+    /**
+     * Creates a new ByteBufferStream which releases the resources backing its buffer when closed.
+     * @param buffer the buffer to read from, it is duplicated so that its position is left untouched.
+     * @param mimeType the mime-type of the asset or null if unknown.
+     * @param onClose called once when this stream is closed, null if there is nothing to release.
+     */
+    ByteBufferStream(final ByteBuffer buffer, final String mimeType, final Closeable onClose) {
+        this.buffer = buffer.duplicate();
+        this.buffer.rewind();
+        this.mimeType = mimeType;
+        this.onClose = onClose;
+    }
+
+    /**
+     * @return a read-only view of the entire content of this stream, independent of the current position.
+     */
+    public ByteBuffer getBuffer() {
+        ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.rewind();
+        return view;
+    }
+
+    @Override
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    @Override
+    public void seek(final long position) throws IOException {
+        if (position < 0 || position > buffer.limit()) {
+            throw new IOException("Seek position " + position + " is out of bounds");
+        }
+        buffer.position((int) position);
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] dst) {
+        return read(dst, 0, dst.length);
+    }
+
+    @Override
+    public int read(final byte[] dst, final int off, final int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(dst, off, n);
+        return n;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) {
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(dst.remaining(), buffer.remaining());
+        dst.put(dst.position(), buffer, buffer.position(), n);
+        dst.position(dst.position() + n);
+        buffer.position(buffer.position() + n);
+        return n;
+    }
+
+    @Override
+    public ByteBuffer map() {
+        ByteBuffer view = buffer.slice().asReadOnlyBuffer();
+        buffer.position(buffer.limit());
+        return view;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Closeable c = onClose;
+        onClose = null;
+        if (c != null) {
+            c.close();
+        }
+    }
+}
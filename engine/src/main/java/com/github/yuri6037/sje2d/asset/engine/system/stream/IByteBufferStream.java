@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.engine.system.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Optional capability of asset streams which can read directly into, or expose their content as, a ByteBuffer.
+ * Streams backed by files or memory implement this interface so that large assets can flow from disk to an upload
+ * buffer without intermediate heap arrays. Use the StreamUtils helpers to fall back transparently on other streams.
+ */
+public interface IByteBufferStream extends IAssetStream {
+    /**
+     * Reads bytes from the stream into a buffer.
+     * @param dst the destination buffer, filled from its position up to its limit.
+     * @return the total number of bytes read into the buffer, or -1 if there is no more data because the end of
+     * the stream has been reached.
+     * @throws IOException if the read operation failed.
+     */
+    int read(ByteBuffer dst) throws IOException;
+
+    /**
+     * Returns the remaining content of this stream as a read-only buffer and moves this stream to its end.
+     * Implementations return a memory mapping or a view of their memory whenever possible, so no data is copied.
+     * @return a buffer holding the remaining content of this stream.
+     * @throws IOException if the content could not be mapped or read.
+     */
+    ByteBuffer map() throws IOException;
+}
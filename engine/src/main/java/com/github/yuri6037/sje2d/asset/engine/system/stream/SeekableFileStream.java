@@ -31,20 +31,60 @@
 package com.github.yuri6037.sje2d.asset.engine.system.stream;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
-public final class SeekableFileStream implements ISeekableAssetStream {
-    private final RandomAccessFile stream;
+/**
+ * A seekable stream over a local file.
+ * Small reads are served from an internal buffer so that reading byte by byte does not issue one system call per
+ * byte; reads larger than the buffer go straight to the file. The remaining content can also be memory mapped
+ * (see IByteBufferStream.map).
+ */
+public final class SeekableFileStream implements ISeekableAssetStream, IByteBufferStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long bufferStart = 0;
 
     /**
      * Creates a new SeekableFileStream.
      * @param file the file to open.
-     * @throws FileNotFoundException if the file could not be found.
+     * @throws IOException if the file could not be opened.
+     */
+    public SeekableFileStream(final File file) throws IOException {
+        this(file.toPath());
+    }
+
+    /**
+     * Creates a new SeekableFileStream.
+     * @param path the path of the file to open.
+     * @throws IOException if the file could not be opened.
      */
-    public SeekableFileStream(final File file) throws FileNotFoundException {
-        stream = new RandomAccessFile(file, "r");
+    public SeekableFileStream(final Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        discard(0);
+    }
+
+    private long position() {
+        return bufferStart + buffer.position();
+    }
+
+    private void discard(final long position) {
+        bufferStart = position;
+        buffer.clear().limit(0);
+    }
+
+    private boolean fill() throws IOException {
+        long position = position();
+        bufferStart = position;
+        buffer.clear();
+        int len = channel.read(buffer, position);
+        buffer.flip();
+        return len > 0;
     }
 
     @Override
@@ -54,26 +94,77 @@ public final class SeekableFileStream implements ISeekableAssetStream {
 
     @Override
     public void seek(final long position) throws IOException {
-        stream.seek(position);
+        if (position < 0) {
+            throw new IOException("Negative seek position");
+        }
+        if (position >= bufferStart && position <= bufferStart + buffer.limit()) {
+            buffer.position((int) (position - bufferStart));
+        } else {
+            discard(position);
+        }
     }
 
     @Override
     public int read() throws IOException {
-        return stream.read();
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] dst) throws IOException {
+        return read(ByteBuffer.wrap(dst));
+    }
+
+    @Override
+    public int read(final byte[] dst, final int off, final int len) throws IOException {
+        return read(ByteBuffer.wrap(dst, off, len));
     }
 
     @Override
-    public int read(final byte[] buffer) throws IOException {
-        return stream.read(buffer);
+    public int read(final ByteBuffer dst) throws IOException {
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        int total = 0;
+        if (buffer.hasRemaining()) {
+            total = Math.min(dst.remaining(), buffer.remaining());
+            dst.put(dst.position(), buffer, buffer.position(), total);
+            dst.position(dst.position() + total);
+            buffer.position(buffer.position() + total);
+            if (!dst.hasRemaining()) {
+                return total;
+            }
+        }
+        if (dst.remaining() >= BUFFER_SIZE) {
+            //Large reads bypass the buffer.
+            long position = position();
+            int len = channel.read(dst, position);
+            if (len > 0) {
+                discard(position + len);
+                total += len;
+            }
+        } else if (fill()) {
+            int len = Math.min(dst.remaining(), buffer.remaining());
+            dst.put(dst.position(), buffer, 0, len);
+            dst.position(dst.position() + len);
+            buffer.position(len);
+            total += len;
+        }
+        return total == 0 ? -1 : total;
     }
 
     @Override
-    public int read(final byte[] buffer, final int off, final int len) throws IOException {
-        return stream.read(buffer, off, len);
+    public ByteBuffer map() throws IOException {
+        channel.position(position());
+        ByteBuffer mapped = StreamUtils.map(channel);
+        discard(channel.position());
+        return mapped;
     }
 
     @Override
     public void close() throws IOException {
-        stream.close();
+        channel.close();
     }
 }
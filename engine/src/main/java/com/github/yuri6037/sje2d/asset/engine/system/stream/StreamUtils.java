@@ -30,13 +30,36 @@
 
 package com.github.yuri6037.sje2d.asset.engine.system.stream;
 
-import java.io.File;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public final class StreamUtils {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamUtils.class);
+
+    /**
+     * Size in bytes under which file content is read into a buffer rather than memory mapped, as mapping small
+     * files costs more than reading them.
+     */
+    public static final int MAP_THRESHOLD = 64 * 1024;
+
+    /**
+     * Size in bytes up to which makeSeekable keeps a stream in memory, larger streams are spilled to a memory mapped
+     * temporary file.
+     */
+    public static final int SEEKABLE_MEMORY_LIMIT = 4 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
     private StreamUtils() {
     }
 
@@ -56,7 +79,7 @@ public final class StreamUtils {
      * @throws IOException if a read operation failed.
      */
     public static void copy(final IAssetStream inStream, final OutputStream outStream) throws IOException {
-        byte[] buffer = new byte[8192];
+        byte[] buffer = new byte[BUFFER_SIZE];
         int len;
         while ((len = inStream.read(buffer)) > 0) {
             outStream.write(buffer, 0, len);
@@ -77,6 +100,9 @@ public final class StreamUtils {
 
     /**
      * Converts an IAssetStream to an ISeekableAssetStream.
+     * Streams supporting IByteBufferStream are mapped without copy. Other streams are buffered in memory up to
+     * SEEKABLE_MEMORY_LIMIT bytes; larger streams are spilled to a memory mapped temporary file which is deleted
+     * when the returned stream is closed. Unless it is already seekable, the given stream is consumed and closed.
      * @param stream the IAssetStream to convert.
      * @return an instance of an ISeekableAssetStream.
      * @throws IOException if the stream couldn't be converted to a seekable stream.
@@ -85,8 +111,133 @@ public final class StreamUtils {
         if (isSeekable(stream)) {
             return (ISeekableAssetStream) stream;
         }
-        File f = File.createTempFile("asset_stream_data", null);
-        Files.copy(StreamUtils.makeInputStream(stream), f.toPath());
-        return new SeekableFileStream(f);
+        String mimeType = stream.getMimeType();
+        try (stream) {
+            if (stream instanceof IByteBufferStream) {
+                return new ByteBufferStream(((IByteBufferStream) stream).map(), mimeType);
+            }
+            InputStream in = makeInputStream(stream);
+            byte[] head = in.readNBytes(SEEKABLE_MEMORY_LIMIT + 1);
+            if (head.length <= SEEKABLE_MEMORY_LIMIT) {
+                return new ByteBufferStream(ByteBuffer.wrap(head), mimeType);
+            }
+            return spill(head, in, mimeType);
+        }
+    }
+
+    private static ISeekableAssetStream spill(final byte[] head, final InputStream in, final String mimeType)
+            throws IOException {
+        Path path = Files.createTempFile("asset_stream_data", null);
+        try {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                try (OutputStream out = Channels.newOutputStream(channel)) {
+                    out.write(head);
+                    in.transferTo(out);
+                    out.flush();
+                    channel.position(0);
+                    //The mapping stays valid after the channel is closed.
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    return new ByteBufferStream(buffer, mimeType, () -> deleteTempFile(path));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile(path);
+            throw e;
+        }
+    }
+
+    private static void deleteTempFile(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            //Some platforms refuse to delete a file which is still mapped.
+            LOGGER.debug("Deferring deletion of temporary file '{}'", path, e);
+            path.toFile().deleteOnExit();
+        }
+    }
+
+    /**
+     * Returns the remaining content of a file channel as a read-only buffer and moves the channel to its end.
+     * Content larger than MAP_THRESHOLD is memory mapped, smaller content is read into a direct buffer.
+     * @param channel the file channel to read.
+     * @return a buffer holding the remaining content of the channel.
+     * @throws IOException if the content could not be mapped or read.
+     */
+    public static ByteBuffer map(final FileChannel channel) throws IOException {
+        long position = channel.position();
+        long size = channel.size() - position;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Stream is too large to be mapped");
+        }
+        ByteBuffer buffer;
+        if (size > MAP_THRESHOLD) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } else {
+            buffer = ByteBuffer.allocateDirect((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            buffer = buffer.asReadOnlyBuffer();
+        }
+        channel.position(position + size);
+        return buffer;
+    }
+
+    /**
+     * Reads bytes from an IAssetStream into a ByteBuffer, directly if the stream supports it (see
+     * IByteBufferStream) or through a temporary heap array otherwise.
+     * @param stream the stream to read from.
+     * @param dst the destination buffer, filled from its position up to its limit.
+     * @return the total number of bytes read into the buffer, or -1 if the end of the stream has been reached.
+     * @throws IOException if a read operation failed.
+     */
+    public static int read(final IAssetStream stream, final ByteBuffer dst) throws IOException {
+        if (stream instanceof IByteBufferStream) {
+            return ((IByteBufferStream) stream).read(dst);
+        }
+        if (dst.hasArray()) {
+            int len = stream.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+            if (len > 0) {
+                dst.position(dst.position() + len);
+            }
+            return len;
+        }
+        byte[] buffer = new byte[Math.min(dst.remaining(), BUFFER_SIZE)];
+        int len = stream.read(buffer);
+        if (len > 0) {
+            dst.put(buffer, 0, len);
+        }
+        return len;
+    }
+
+    /**
+     * Returns the remaining content of an IAssetStream as a buffer. Streams supporting IByteBufferStream are mapped
+     * without copy, other streams are read into a direct buffer.
+     * @param stream the stream to read.
+     * @return a buffer holding the remaining content of the stream.
+     * @throws IOException if a read operation failed.
+     */
+    public static ByteBuffer toByteBuffer(final IAssetStream stream) throws IOException {
+        if (stream instanceof IByteBufferStream) {
+            return ((IByteBufferStream) stream).map();
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        byte[] chunk = new byte[BUFFER_SIZE];
+        int len;
+        while ((len = stream.read(chunk)) > 0) {
+            if (buffer.remaining() < len) {
+                ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2,
+                        buffer.position() + len));
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+            buffer.put(chunk, 0, len);
+        }
+        buffer.flip();
+        return buffer;
     }
 }
@@ -34,11 +34,12 @@ import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.system.IAssetFactory;
 import com.github.yuri6037.sje2d.asset.engine.system.IAssetLoader;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.factory.image.ImageIODecoder;
 
 public final class ImageTextureFactory implements IAssetFactory {
     @Override
     public IAssetLoader create(final IAssetStream stream, final AssetURL url) throws Exception {
-        return new ImageTextureLoader(url, stream);
+        return new ImageTextureLoader(url, stream, new ImageIODecoder());
     }
 
     @Override
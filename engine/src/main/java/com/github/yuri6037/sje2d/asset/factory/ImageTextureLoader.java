@@ -31,19 +31,23 @@
 package com.github.yuri6037.sje2d.asset.factory;
 
 import com.github.yuri6037.sje2d.asset.Texture;
+import com.github.yuri6037.sje2d.asset.TextureData;
+import com.github.yuri6037.sje2d.asset.atlas.AtlasRegion;
+import com.github.yuri6037.sje2d.asset.atlas.TextureAtlas;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.cache.DecodedCache;
 import com.github.yuri6037.sje2d.asset.engine.map.AssetDepMap;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.StreamUtils;
 import com.github.yuri6037.sje2d.asset.factory.base.BaseLoader;
-import com.github.yuri6037.sje2d.math.MathUtils;
-import com.github.yuri6037.sje2d.util.ImageUtils;
+import com.github.yuri6037.sje2d.asset.factory.base.NpotPolicy;
+import com.github.yuri6037.sje2d.asset.factory.image.DecodedImage;
+import com.github.yuri6037.sje2d.asset.factory.image.IImageDecoder;
+import com.github.yuri6037.sje2d.asset.factory.image.ImageIODecoder;
 import com.github.yuri6037.sje2d.util.StringEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.nio.ByteBuffer;
 
 //CHECKSTYLE OFF: AvoidStarImport
@@ -52,6 +56,8 @@ import static org.lwjgl.opengl.GL12.*;
 
 public final class ImageTextureLoader extends BaseLoader<Texture> {
     private static final Logger LOGGER = LoggerFactory.getLogger(ImageTextureLoader.class);
+    private static final int CACHE_VERSION = 1;
+    private static final IImageDecoder FALLBACK_DECODER = new ImageIODecoder();
 
     private static final StringEnum<Integer> WRAP_MODE = StringEnum.create(
             "edgeclamp", GL_CLAMP_TO_EDGE,
@@ -65,17 +71,18 @@ public final class ImageTextureLoader extends BaseLoader<Texture> {
     );
 
     private final IAssetStream stream;
-    private ByteBuffer buffer;
-    private int width;
-    private int height;
+    private final IImageDecoder decoder;
+    private TextureData texels;
+    private AtlasRegion region;
     private int xWrap;
     private int yWrap;
     private int min;
     private int mag;
 
-    ImageTextureLoader(final AssetURL url, final IAssetStream stream) {
+    ImageTextureLoader(final AssetURL url, final IAssetStream stream, final IImageDecoder decoder) {
         super(url);
         this.stream = stream;
+        this.decoder = decoder;
     }
 
     private void computeModes() {
@@ -89,20 +96,70 @@ public final class ImageTextureLoader extends BaseLoader<Texture> {
 
     @Override
     public Result load(final AssetDepMap dependencies) throws Exception {
-        BufferedImage image = ImageIO.read(StreamUtils.makeInputStream(stream));
-        if (!MathUtils.isPowerOfTwo(image.getWidth()) || !MathUtils.isPowerOfTwo(image.getHeight())) {
-            throw new IllegalArgumentException("Image size is not a power of 2");
+        ByteBuffer source = StreamUtils.toByteBuffer(stream);
+        DecodedCache cache = DecodedCache.getDefault();
+        String key = cache.isEnabled() ? DecodedCache.key(url, getClass().getName(), CACHE_VERSION, source) : null;
+        DecodedCache.Entry entry = key == null ? null : cache.get(key);
+        DecodedImage image;
+        if (entry != null) {
+            LOGGER.debug("Using cached texels for '{}'", url);
+            image = new DecodedImage(entry.metadata()[0], entry.metadata()[1], entry.data());
+        } else {
+            image = decoder.decode(source);
+            if (image == null) {
+                image = FALLBACK_DECODER.decode(source);
+            }
+            if (key != null) {
+                cache.put(key, new int[]{image.width(), image.height()}, image.data());
+            }
         }
-        buffer = ImageUtils.imageToBuffer(image);
-        width = image.getWidth();
-        height = image.getHeight();
         computeModes();
+        region = packIntoAtlas(image);
+        if (region != null) {
+            return Result.ready();
+        }
+        texels = NpotPolicy.fromURL(url).apply(url, image.data(), image.width(), image.height());
+        boolean padded = texels.width() != texels.textureWidth() || texels.height() != texels.textureHeight();
+        if (padded && (xWrap == GL_REPEAT || yWrap == GL_REPEAT)) {
+            LOGGER.warn("Texture '{}' is padded, repeat wrap mode will also repeat the padding", url);
+        }
         return Result.ready();
     }
 
     @Override
-    protected Texture createAsset() {
-        Texture texture = new Texture(buffer, width, height);
+    public synchronized void abort() {
+        //The atlas region is reserved by load, it must be released if no texture was created from it.
+        if (region != null) {
+            region.page().getAtlas().release(region);
+            region = null;
+        }
+    }
+
+    private AtlasRegion packIntoAtlas(final DecodedImage image) {
+        String atlas = url.getParameter("atlas");
+        if (atlas == null) {
+            return null;
+        }
+        if (xWrap == GL_REPEAT || yWrap == GL_REPEAT) {
+            LOGGER.warn("Texture '{}' uses repeat wrap mode, not packing it into texture atlas '{}'", url, atlas);
+            return null;
+        }
+        AtlasRegion packed = TextureAtlas.get(atlas).pack(new TextureData(image.data(), image.width(),
+                image.height()), min, mag);
+        if (packed == null) {
+            LOGGER.info("Texture '{}' is too large for texture atlas '{}'", url, atlas);
+        }
+        return packed;
+    }
+
+    @Override
+    protected synchronized Texture createAsset() {
+        if (region != null) {
+            Texture texture = region.page().getAtlas().createTexture(region);
+            region = null; //The texture owns the region from now on.
+            return texture;
+        }
+        Texture texture = new Texture(texels);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, xWrap);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, yWrap);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, min);
@@ -54,10 +54,15 @@ public final class AnimationGIFLoader extends AnimationLoader {
     }
 
     @Override
-    protected void build() throws Exception {
+    protected InputStream openSource() {
+        return stream;
+    }
+
+    @Override
+    protected void build(final InputStream source) throws Exception {
         ImageReader reader = ImageIO.getImageReadersBySuffix("gif").next();
         BufferedImage frame = null;
-        reader.setInput(ImageIO.createImageInputStream(stream));
+        reader.setInput(ImageIO.createImageInputStream(source));
         int i = reader.getMinIndex();
         int max = reader.getNumImages(true);
         while (i < max) {
@@ -31,16 +31,21 @@
 package com.github.yuri6037.sje2d.asset.factory.animation;
 
 import com.github.yuri6037.sje2d.asset.Animation;
+import com.github.yuri6037.sje2d.asset.TextureData;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.cache.DecodedCache;
 import com.github.yuri6037.sje2d.asset.engine.map.AssetDepMap;
 import com.github.yuri6037.sje2d.asset.factory.base.BaseLoader;
-import com.github.yuri6037.sje2d.math.MathUtils;
+import com.github.yuri6037.sje2d.asset.factory.base.NpotPolicy;
 import com.github.yuri6037.sje2d.util.ImageUtils;
 
 //CHECKSTYLE OFF: AvoidStarImport
 import static org.lwjgl.opengl.GL12.*;
 //CHECKSTYLE ON
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
@@ -49,10 +54,12 @@ import java.awt.image.BufferedImage;
 
 public abstract class AnimationLoader extends BaseLoader<Animation> {
     private static final int MAX_TEXTURE_SIZE = 8192;
+    private static final int CACHE_VERSION = 1;
 
-    private ByteBuffer buffer;
+    private TextureData texels;
     private int numColumns;
     private int numRows;
+    private int frameCount;
 
     //CHECKSTYLE OFF: VisibilityModifier
 
@@ -86,19 +93,27 @@ public abstract class AnimationLoader extends BaseLoader<Animation> {
         super(url);
     }
 
+    /**
+     * Opens the source data of the animation. When the decoded cache is enabled, the source data is read entirely
+     * and hashed to look the animation up in the cache.
+     * @return the source data of the animation, empty by default.
+     * @throws IOException if the source data could not be opened.
+     */
+    protected InputStream openSource() throws IOException {
+        return InputStream.nullInputStream();
+    }
+
     /**
      * Called to build the list of frames and the properties of this animation.
+     * @param source the source data of the animation, as returned by openSource.
      * @throws Exception if the animation could not be built.
      */
-    protected abstract void build() throws Exception;
+    protected abstract void build(InputStream source) throws Exception;
 
     private BufferedImage genBitmap() {
         if (frames.isEmpty() || frameWidth == 0 || frameHeight == 0) {
             return null;
         }
-        if (!MathUtils.isPowerOfTwo(frameWidth) || !MathUtils.isPowerOfTwo(frameHeight)) {
-            throw new IllegalArgumentException("Animation frame size is not a power of 2");
-        }
         numColumns = (int) Math.ceil((double) (frameHeight * frames.size()) / (double) MAX_TEXTURE_SIZE);
         numRows = Math.min(frames.size(), MAX_TEXTURE_SIZE / frameHeight);
         BufferedImage output = new BufferedImage(numColumns * frameWidth, numRows * frameHeight,
@@ -117,20 +132,50 @@ public abstract class AnimationLoader extends BaseLoader<Animation> {
         return output;
     }
 
+    private void applyNpotPolicy(final ByteBuffer buffer) {
+        texels = NpotPolicy.fromURL(url).apply(url, buffer, numColumns * frameWidth, numRows * frameHeight);
+    }
+
     @Override
     public final Result load(final AssetDepMap dependencies) throws Exception {
-        build();
+        InputStream source = openSource();
+        DecodedCache cache = DecodedCache.getDefault();
+        String key = null;
+        DecodedCache.Entry entry = null;
+        if (cache.isEnabled()) {
+            byte[] bytes = source.readAllBytes();
+            key = DecodedCache.key(url, getClass().getName(), CACHE_VERSION, bytes);
+            entry = cache.get(key);
+            source = new ByteArrayInputStream(bytes);
+        }
+        if (entry != null) {
+            int[] metadata = entry.metadata();
+            frameWidth = metadata[0];
+            frameHeight = metadata[1];
+            fps = metadata[2];
+            numRows = metadata[3];
+            numColumns = metadata[4];
+            frameCount = metadata[5];
+            applyNpotPolicy(entry.data());
+            return Result.ready();
+        }
+        build(source);
         BufferedImage bitmap = genBitmap();
         if (bitmap == null) {
             return Result.none();
         }
-        buffer = ImageUtils.imageToBuffer(bitmap);
+        ByteBuffer buffer = ImageUtils.imageToBuffer(bitmap);
+        frameCount = frames.size();
+        if (key != null) {
+            cache.put(key, new int[]{frameWidth, frameHeight, fps, numRows, numColumns, frameCount}, buffer);
+        }
+        applyNpotPolicy(buffer);
         return Result.ready();
     }
 
     @Override
     protected final Animation createAsset() throws Exception {
-        Animation animation = new Animation(buffer, frameWidth, frameHeight, fps, numRows, numColumns, frames.size());
+        Animation animation = new Animation(texels, frameWidth, frameHeight, fps, frameCount);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
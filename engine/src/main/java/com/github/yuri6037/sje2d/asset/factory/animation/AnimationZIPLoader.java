@@ -33,11 +33,11 @@ package com.github.yuri6037.sje2d.asset.factory.animation;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
-import javax.imageio.ImageIO;
 import javax.xml.bind.JAXBContext;
 import javax.xml.transform.stream.StreamSource;
 
@@ -48,6 +48,7 @@ import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.StreamUtils;
 import com.github.yuri6037.sje2d.config.AnimationType;
+import com.github.yuri6037.sje2d.util.ImageUtils;
 
 public final class AnimationZIPLoader extends AnimationLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(AnimationZIPLoader.class);
@@ -73,14 +74,18 @@ public final class AnimationZIPLoader extends AnimationLoader {
     private void loadAnimationFrames(final AnimationType animation,
         final HashMap<String, byte[]> items) throws IOException {
         for (String frame : animation.getFrames().getFrame()) {
-            ByteArrayInputStream s = new ByteArrayInputStream(items.get(frame));
-            frames.add(ImageIO.read(s));
+            frames.add(ImageUtils.read(ByteBuffer.wrap(items.get(frame))));
         }
     }
 
     @Override
-    protected void build() throws Exception {
-        ZipInputStream zip =  new ZipInputStream(stream);
+    protected InputStream openSource() {
+        return stream;
+    }
+
+    @Override
+    protected void build(final InputStream source) throws Exception {
+        ZipInputStream zip =  new ZipInputStream(source);
         HashMap<String, byte[]> items = new HashMap<>();
         AnimationType animation = null;
         ZipEntry entry = null;
@@ -34,11 +34,30 @@ import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.map.AssetDepMap;
 import com.github.yuri6037.sje2d.asset.engine.system.IAsset;
 
+import java.util.function.Function;
+
+/**
+ * A loader which waits for dependencies as if it was blocking, without holding any thread while it waits.
+ * When loadAsync requires a dependency which is not yet available, the current load step ends and asks the solver
+ * for it. Once the dependency is mounted, loadAsync is run again from the start with all dependencies obtained so
+ * far, so it must rebuild its state on every run (anything expensive, such as parsing, should be kept across runs)
+ * and must not catch the RuntimeException thrown by awaitAsset.
+ * @param <T> the type of asset to load.
+ */
 public abstract class AsyncLoader<T extends IAsset> extends BaseLoader<T> {
-    private final Thread thread;
-    private AssetDepMap deps1;
-    private String[] neededDeps;
-    private Exception threadException;
+    private AssetDepMap deps1 = null;
+
+    /**
+     * Thrown by awaitAsset to end the current load step, without a stack trace as this is not an error.
+     */
+    private static final class MissingDependency extends RuntimeException {
+        private final String vpath;
+
+        MissingDependency(final String vpath) {
+            super("Missing dependency '" + vpath + "'", null, false, false);
+            this.vpath = vpath;
+        }
+    }
 
     /**
      * Creates a new AsyncLoader.
@@ -47,14 +66,13 @@ public abstract class AsyncLoader<T extends IAsset> extends BaseLoader<T> {
      */
     public AsyncLoader(final AssetURL url) {
         super(url);
-        thread = new Thread(() -> {
-            try {
-                this.loadAsync();
-            } catch (Exception e) {
-                threadException = e;
-            }
-        });
-        neededDeps = null;
+    }
+
+    private <V> V await(final String vpath, final Function<AssetDepMap, V> getter) {
+        if (deps1 == null || !deps1.contains(vpath)) {
+            throw new MissingDependency(vpath);
+        }
+        return getter.apply(deps1);
     }
 
     /**
@@ -65,26 +83,7 @@ public abstract class AsyncLoader<T extends IAsset> extends BaseLoader<T> {
      * @param <V> the asset generic type.
      */
     protected <V extends IAsset> V awaitAsset(final Class<V> assetClass, final String vpath) {
-        V asset;
-        synchronized (this) {
-            asset = deps1.contains(vpath) ? deps1.get(assetClass, vpath) : null;
-            if (asset == null) {
-                neededDeps = new String[]{vpath};
-            }
-        }
-        if (asset != null) {
-            return asset;
-        }
-        while (true) {
-            synchronized (this) {
-                if (neededDeps == null) {
-                    asset = deps1.contains(vpath) ? deps1.get(assetClass, vpath) : null;
-                    break;
-                }
-            }
-            Thread.yield();
-        }
-        return asset;
+        return await(vpath, (deps) -> deps.get(assetClass, vpath));
     }
 
     /**
@@ -93,30 +92,12 @@ public abstract class AsyncLoader<T extends IAsset> extends BaseLoader<T> {
      * @return the found asset or null if not found.
      */
     protected IAsset awaitAsset(final String vpath) {
-        IAsset asset;
-        synchronized (this) {
-            asset = deps1.contains(vpath) ? deps1.get(vpath) : null;
-            if (asset == null) {
-                neededDeps = new String[]{vpath};
-            }
-        }
-        if (asset != null) {
-            return asset;
-        }
-        while (true) {
-            synchronized (this) {
-                if (neededDeps == null) {
-                    asset = deps1.contains(vpath) ? deps1.get(vpath) : null;
-                    break;
-                }
-            }
-            Thread.yield();
-        }
-        return asset;
+        return await(vpath, (deps) -> deps.get(vpath));
     }
 
     /**
-     * Loads this asset asynchronously by allowing blocking-like behavior when requiring dependencies.
+     * Loads this asset by allowing blocking-like behavior when requiring dependencies.
+     * This function is run again from the start each time a missing dependency becomes available.
      * @throws Exception when this asset failed to load.
      */
     protected abstract void loadAsync() throws Exception;
@@ -125,23 +106,13 @@ public abstract class AsyncLoader<T extends IAsset> extends BaseLoader<T> {
 
     @Override
     public final Result load(final AssetDepMap deps) throws Exception {
-        if (deps1 == null) {
-            thread.start();
-        }
-        synchronized (this) {
-            deps1 = deps;
-            neededDeps = null;
-        }
-        while (thread.isAlive()) {
-            synchronized (this) {
-                if (neededDeps != null) {
-                    return Result.needsDependencies(neededDeps);
-                }
-            }
-            Thread.yield();
-        }
-        if (threadException != null) {
-            throw threadException;
+        deps1 = deps;
+        try {
+            loadAsync();
+        } catch (MissingDependency e) {
+            return Result.needsDependencies(new String[]{e.vpath});
+        } finally {
+            deps1 = null;
         }
         return Result.ready();
     }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.factory.base;
+
+import com.github.yuri6037.sje2d.asset.TextureData;
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.math.MathUtils;
+import com.github.yuri6037.sje2d.util.StringEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * What texture loaders do with images which do not have power of 2 dimensions, selected with the npot URL
+ * parameter (reject, pad or native).
+ */
+public enum NpotPolicy {
+    /**
+     * Fail to load the asset.
+     */
+    Reject,
+
+    /**
+     * Pad the image to the next power of 2 dimensions; the texture exposes the UV rectangle of the image.
+     */
+    Pad,
+
+    /**
+     * Upload the image at its own size, falling back to padding if the OpenGL driver does not support it.
+     */
+    Native;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NpotPolicy.class);
+    private static final StringEnum<NpotPolicy> NAMES = StringEnum.create(
+            "reject", Reject,
+            "pad", Pad,
+            "native", Native
+    );
+
+    /**
+     * Reads the policy of an asset.
+     * @param url the asset url.
+     * @return the policy given by the npot parameter of the URL, Native by default.
+     */
+    public static NpotPolicy fromURL(final AssetURL url) {
+        return NAMES.get(Native, url.getParameter("npot"));
+    }
+
+    /**
+     * Applies this policy to a decoded image and logs the texture memory it saves over padding.
+     * @param url the url of the asset, for logging.
+     * @param buffer the buffer of width * height RGBA texels.
+     * @param width the width of the image.
+     * @param height the height of the image.
+     * @return the texel data to upload.
+     */
+    public TextureData apply(final AssetURL url, final ByteBuffer buffer, final int width, final int height) {
+        TextureData data = new TextureData(buffer, width, height);
+        if (data.isPowerOfTwo()) {
+            return data;
+        }
+        switch (this) {
+            case Reject -> throw new IllegalArgumentException("Texture size " + width + "x" + height
+                    + " is not a power of 2");
+            case Pad -> {
+                data = data.padToPowerOfTwo();
+                LOGGER.info("Padded {}x{} texture '{}' to {}x{} ({} KB of padding)", width, height, url,
+                        data.textureWidth(), data.textureHeight(), (data.getByteSize() - (long) width * height * 4)
+                                / 1024);
+            }
+            default -> LOGGER.info("Using {}x{} texture '{}' at its own size, saving {} KB over padding to {}x{}",
+                    width, height, url, (data.getPowerOfTwoByteSize() - data.getByteSize()) / 1024,
+                    MathUtils.nextPowerOfTwo(width), MathUtils.nextPowerOfTwo(height));
+        }
+        return data;
+    }
+}
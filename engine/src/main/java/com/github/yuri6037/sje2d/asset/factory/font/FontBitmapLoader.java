@@ -31,11 +31,13 @@
 package com.github.yuri6037.sje2d.asset.factory.font;
 
 import com.github.yuri6037.sje2d.asset.FontBitmap;
+import com.github.yuri6037.sje2d.asset.TextureData;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.cache.DecodedCache;
 import com.github.yuri6037.sje2d.asset.engine.map.AssetDepMap;
 import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
 import com.github.yuri6037.sje2d.asset.engine.system.ITAssetLoader;
-import com.github.yuri6037.sje2d.math.MathUtils;
+import com.github.yuri6037.sje2d.asset.factory.base.NpotPolicy;
 import com.github.yuri6037.sje2d.util.ImageUtils;
 import com.github.yuri6037.sje2d.util.StringUtils;
 import org.slf4j.Logger;
@@ -47,6 +49,7 @@ import java.awt.Graphics2D;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -57,6 +60,8 @@ import static org.lwjgl.opengl.GL12.*;
 
 public abstract class FontBitmapLoader implements ITAssetLoader<FontBitmap> {
     private static final Logger LOGGER = LoggerFactory.getLogger(FontBitmapLoader.class);
+    private static final int CACHE_VERSION = 1;
+    private static final int PLANE_SIZE = 256;
 
     //CHECKSTYLE OFF: VisibilityModifier
     /**
@@ -73,18 +78,40 @@ public abstract class FontBitmapLoader implements ITAssetLoader<FontBitmap> {
         this.url = url;
     }
 
+    /**
+     * Reads the source data of the font.
+     * @return the source data of the font, empty by default.
+     * @throws IOException if the source data could not be read.
+     */
+    protected byte[] readSource() throws IOException {
+        return new byte[0];
+    }
+
+    /**
+     * Computes the data which identifies the font in the decoded cache. This is only called when the cache is
+     * enabled.
+     * @param source the source data of the font, as returned by readSource.
+     * @return the data to hash into the cache key, the source data by default.
+     * @throws Exception if the font failed to build.
+     */
+    protected byte[] getCacheSource(final byte[] source) throws Exception {
+        return source;
+    }
+
     /**
      * Builds the font object used to render the bitmap.
+     * @param source the source data of the font, as returned by readSource.
      * @return a new Font object.
      * @throws Exception if the font failed to build.
      */
-    protected abstract Font buildFont() throws Exception;
+    protected abstract Font buildFont(byte[] source) throws Exception;
 
     private int width;
     private String vpath;
     private int charHeight;
     private final HashMap<Integer, Integer> charWidth = new HashMap<>();
     private ByteBuffer buffer;
+    private TextureData texels;
     private int guessBearingX;
     private int descent;
 
@@ -128,21 +155,9 @@ public abstract class FontBitmapLoader implements ITAssetLoader<FontBitmap> {
         return bearingX;
     }
 
-    @Override
-    public final Result load(final AssetDepMap dependencies) throws Exception {
-        boolean enableDebug = url.getParameter("debug", "false").equals("true");
-        if (enableDebug) {
-            LOGGER.info("Debug mode is enabled for this bitmap");
-        }
-        width = Integer.parseInt(url.getParameter("width", "512"));
-        if (!MathUtils.isPowerOfTwo(width)) {
-            throw new IllegalArgumentException("Bitmap size is not a power of 2");
-        }
+    private void render(final int plane, final byte[] source, final boolean enableDebug) throws Exception {
         int blockSize =  width / 16;
-        int plane = Integer.parseInt(url.getParameter("plane", "0"));
-        String baseVpath = url.getParameter("vpath", "Font/Generic");
-        vpath = baseVpath + "/Plane" + plane;
-        Font font = buildFont();
+        Font font = buildFont(source);
         LOGGER.debug("Building font bitmap ({}x{} - {}) for plane #{}...", width, width, blockSize,
                 plane);
         if (plane * 256 > 1114112) {
@@ -188,12 +203,57 @@ public abstract class FontBitmapLoader implements ITAssetLoader<FontBitmap> {
         }
         buffer = ImageUtils.imageToBuffer(image);
         charHeight = ch;
+    }
+
+    @Override
+    public final Result load(final AssetDepMap dependencies) throws Exception {
+        boolean enableDebug = url.getParameter("debug", "false").equals("true");
+        if (enableDebug) {
+            LOGGER.info("Debug mode is enabled for this bitmap");
+        }
+        width = Integer.parseInt(url.getParameter("width", "512"));
+        if (width <= 0 || width % 16 != 0) {
+            throw new IllegalArgumentException("Bitmap size is not a multiple of 16");
+        }
+        int plane = Integer.parseInt(url.getParameter("plane", "0"));
+        String baseVpath = url.getParameter("vpath", "Font/Generic");
+        vpath = baseVpath + "/Plane" + plane;
+        byte[] source = readSource();
+        DecodedCache cache = enableDebug ? new DecodedCache(null) : DecodedCache.getDefault();
+        String key = cache.isEnabled()
+                ? DecodedCache.key(url, getClass().getName(), CACHE_VERSION, getCacheSource(source)) : null;
+        DecodedCache.Entry entry = key == null ? null : cache.get(key);
+        if (entry != null) {
+            LOGGER.debug("Using cached font bitmap for plane #{}", plane);
+            int[] metadata = entry.metadata();
+            charHeight = metadata[0];
+            guessBearingX = metadata[1];
+            descent = metadata[2];
+            for (int i = 0; i != PLANE_SIZE; ++i) {
+                charWidth.put(plane * PLANE_SIZE + i, metadata[3 + i]);
+            }
+            buffer = entry.data();
+            texels = NpotPolicy.fromURL(url).apply(url, buffer, width, width);
+            return Result.ready();
+        }
+        render(plane, source, enableDebug);
+        int[] metadata = new int[3 + PLANE_SIZE];
+        metadata[0] = charHeight;
+        metadata[1] = guessBearingX;
+        metadata[2] = descent;
+        for (int i = 0; i != PLANE_SIZE; ++i) {
+            metadata[3 + i] = charWidth.get(plane * PLANE_SIZE + i);
+        }
+        if (key != null) {
+            cache.put(key, metadata, buffer);
+        }
+        texels = NpotPolicy.fromURL(url).apply(url, buffer, width, width);
         return Result.ready();
     }
 
     @Override
     public final AssetStore<FontBitmap> create() throws Exception {
-        FontBitmap bitmap = new FontBitmap(buffer, width, charHeight, guessBearingX, descent, charWidth);
+        FontBitmap bitmap = new FontBitmap(texels, charHeight, guessBearingX, descent, charWidth);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_CLAMP_TO_EDGE);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_CLAMP_TO_EDGE);
         glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
@@ -33,8 +33,15 @@ package com.github.yuri6037.sje2d.asset.factory.font;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 
 import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 
 public final class FontBitmapLoaderSystem extends FontBitmapLoader {
+    private static final String SAMPLE = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789.,;:!?()";
+
     /**
      * Creates a new FontBitmapLoaderSystem.
      * @param url the asset url that is going to be loaded.
@@ -43,8 +50,35 @@ public final class FontBitmapLoaderSystem extends FontBitmapLoader {
         super(url);
     }
 
+    /**
+     * System fonts have no source data, so the font the system resolves is fingerprinted instead: its names, glyph
+     * count and the glyph codes and advances of a sample string. Installing another version of the font, or another
+     * font under the same family name, changes the fingerprint and invalidates the cached bitmaps.
+     * @param source the source data of the font, always empty.
+     * @return the fingerprint of the resolved font.
+     * @throws IOException never.
+     */
+    @Override
+    protected byte[] getCacheSource(final byte[] source) throws IOException {
+        Font font = buildFont(source);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(font.getFontName());
+            out.writeUTF(font.getPSName());
+            out.writeInt(font.getNumGlyphs());
+            //The rasterizer is part of the JDK, a JDK update may render glyphs differently.
+            out.writeUTF(Runtime.version().toString());
+            GlyphVector glyphs = font.createGlyphVector(new FontRenderContext(null, true, true), SAMPLE);
+            for (int i = 0; i != glyphs.getNumGlyphs(); ++i) {
+                out.writeInt(glyphs.getGlyphCode(i));
+                out.writeFloat(glyphs.getGlyphMetrics(i).getAdvance());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
     @Override
-    protected Font buildFont() {
+    protected Font buildFont(final byte[] source) {
         String family = url.getPath();
         //noinspection MagicConstant
         return new Font(family, getFontStyle(), getFontSize());
@@ -35,6 +35,8 @@ import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.StreamUtils;
 
 import java.awt.Font;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
 public final class FontBitmapLoaderTTF extends FontBitmapLoader {
@@ -51,8 +53,14 @@ public final class FontBitmapLoaderTTF extends FontBitmapLoader {
     }
 
     @Override
-    protected Font buildFont() throws Exception {
+    protected byte[] readSource() throws IOException {
+        return stream.readAllBytes();
+    }
+
+    @Override
+    protected Font buildFont(final byte[] source) throws Exception {
         //noinspection MagicConstant
-        return Font.createFont(Font.TRUETYPE_FONT, stream).deriveFont(getFontStyle(), getFontSize());
+        return Font.createFont(Font.TRUETYPE_FONT, new ByteArrayInputStream(source))
+                .deriveFont(getFontStyle(), getFontSize());
     }
 }
@@ -42,7 +42,6 @@ import com.github.yuri6037.sje2d.asset.engine.system.stream.StreamUtils;
 import com.github.yuri6037.sje2d.config.BaseType;
 import com.github.yuri6037.sje2d.config.FontType;
 import com.github.yuri6037.sje2d.config.RuleType;
-import com.github.yuri6037.sje2d.math.MathUtils;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.transform.stream.StreamSource;
@@ -115,8 +114,8 @@ public final class FontLoader implements ITAssetLoader<Font> {
         vpath = new VirtualPathBuilder(url).setType("Font").setPath(font.getName()).build();
         bitmapWidth = Integer.parseInt(font.getWidth());
         enableDebug = font.isDebug() != null && font.isDebug();
-        if (!MathUtils.isPowerOfTwo(bitmapWidth)) {
-            throw new IllegalArgumentException("Font bitmap width must be a power of 2");
+        if (bitmapWidth <= 0 || bitmapWidth % 16 != 0) {
+            throw new IllegalArgumentException("Font bitmap width must be a multiple of 16");
         }
         baseUrl = loadBaseRule(font.getBase());
         for (RuleType rule: font.getRules().getRule()) {
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.factory.image;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes PNG images straight into a buffer of RGBA texels.
+ * Image data is inflated one scanline at a time with java.util.zip.Inflater, unfiltered and expanded to RGBA in
+ * place, so that the only large allocation is the output buffer. All color types and bit depths are supported;
+ * interlaced images are left to the ImageIO decoder (decode returns null).
+ */
+public final class PngDecoder implements IImageDecoder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PngDecoder.class);
+    private static final long SIGNATURE = 0x89504E470D0A1A0AL;
+    private static final int CHUNK_IHDR = 0x49484452;
+    private static final int CHUNK_PLTE = 0x504C5445;
+    private static final int CHUNK_TRNS = 0x74524E53;
+    private static final int CHUNK_IDAT = 0x49444154;
+    private static final int CHUNK_IEND = 0x49454E44;
+    private static final int COLOR_GRAY = 0;
+    private static final int COLOR_RGB = 2;
+    private static final int COLOR_PALETTE = 3;
+    private static final int COLOR_GRAY_ALPHA = 4;
+    private static final int COLOR_RGBA = 6;
+
+    private static final class Header {
+        private final int width;
+        private final int height;
+        private final int depth;
+        private final int colorType;
+        private final int channels;
+        private final boolean interlaced;
+        private byte[] palette;
+        private int[] transparentKey;
+
+        Header(final ByteBuffer chunk) throws IOException {
+            long w = chunk.getInt(0) & 0xFFFFFFFFL;
+            long h = chunk.getInt(4) & 0xFFFFFFFFL;
+            depth = chunk.get(8);
+            colorType = chunk.get(9);
+            if (w == 0 || h == 0 || w * h * 4 > Integer.MAX_VALUE) {
+                throw new IOException("Invalid PNG image size " + w + "x" + h);
+            }
+            width = (int) w;
+            height = (int) h;
+            channels = switch (colorType) {
+                case COLOR_GRAY, COLOR_PALETTE -> 1;
+                case COLOR_GRAY_ALPHA -> 2;
+                case COLOR_RGB -> 3;
+                case COLOR_RGBA -> 4;
+                default -> throw new IOException("Invalid PNG color type " + colorType);
+            };
+            boolean validDepth = switch (colorType) {
+                case COLOR_GRAY -> depth == 1 || depth == 2 || depth == 4 || depth == 8 || depth == 16;
+                case COLOR_PALETTE -> depth == 1 || depth == 2 || depth == 4 || depth == 8;
+                default -> depth == 8 || depth == 16;
+            };
+            if (!validDepth) {
+                throw new IOException("Invalid PNG bit depth " + depth + " for color type " + colorType);
+            }
+            if (chunk.get(10) != 0 || chunk.get(11) != 0) {
+                throw new IOException("Unsupported PNG compression or filter method");
+            }
+            interlaced = chunk.get(12) != 0;
+        }
+
+        void readPalette(final ByteBuffer chunk) {
+            palette = new byte[256 * 4];
+            for (int i = 0; i != 256; ++i) {
+                palette[i * 4 + 3] = (byte) 0xFF;
+            }
+            int count = Math.min(256, chunk.remaining() / 3);
+            for (int i = 0; i != count; ++i) {
+                palette[i * 4] = chunk.get(i * 3);
+                palette[i * 4 + 1] = chunk.get(i * 3 + 1);
+                palette[i * 4 + 2] = chunk.get(i * 3 + 2);
+            }
+        }
+
+        void readTransparency(final ByteBuffer chunk) throws IOException {
+            switch (colorType) {
+                case COLOR_PALETTE -> {
+                    if (palette == null) {
+                        throw new IOException("PNG transparency chunk before palette");
+                    }
+                    for (int i = 0; i != Math.min(256, chunk.remaining()); ++i) {
+                        palette[i * 4 + 3] = chunk.get(i);
+                    }
+                }
+                case COLOR_GRAY -> {
+                    transparentKey = new int[]{chunk.getShort(0) & 0xFFFF};
+                }
+                case COLOR_RGB -> {
+                    transparentKey = new int[]{chunk.getShort(0) & 0xFFFF, chunk.getShort(2) & 0xFFFF,
+                            chunk.getShort(4) & 0xFFFF};
+                }
+                default -> LOGGER.warn("Ignoring PNG transparency chunk on an image with an alpha channel");
+            }
+        }
+    }
+
+    @Override
+    public DecodedImage decode(final ByteBuffer source) throws IOException {
+        ByteBuffer in = source.slice().order(ByteOrder.BIG_ENDIAN);
+        if (in.remaining() < Long.BYTES || in.getLong() != SIGNATURE) {
+            throw new IOException("Not a PNG image");
+        }
+        try {
+            Header header = null;
+            List<ByteBuffer> data = new ArrayList<>();
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length = in.getInt();
+                int type = in.getInt();
+                if (length < 0 || length > in.remaining() - Integer.BYTES) {
+                    throw new IOException("Truncated PNG chunk");
+                }
+                crc.reset();
+                crc.update(in.slice(in.position() - Integer.BYTES, length + Integer.BYTES));
+                ByteBuffer chunk = in.slice(in.position(), length);
+                in.position(in.position() + length);
+                if ((int) crc.getValue() != in.getInt()) {
+                    throw new IOException("Corrupted PNG chunk (bad CRC)");
+                }
+                if (type == CHUNK_IEND) {
+                    break;
+                }
+                if (header == null && type != CHUNK_IHDR) {
+                    throw new IOException("Missing PNG header");
+                }
+                switch (type) {
+                    case CHUNK_IHDR -> {
+                        header = new Header(chunk);
+                        if (header.interlaced) {
+                            LOGGER.debug("Interlaced PNG, falling back to ImageIO");
+                            return null;
+                        }
+                    }
+                    case CHUNK_PLTE -> header.readPalette(chunk);
+                    case CHUNK_TRNS -> header.readTransparency(chunk);
+                    case CHUNK_IDAT -> data.add(chunk);
+                    default -> {
+                        //Bit 5 of the first letter is clear for critical chunks, which must not be ignored.
+                        if ((type & 0x20000000) == 0) {
+                            throw new IOException("Unsupported critical PNG chunk");
+                        }
+                    }
+                }
+            }
+            if (header == null || data.isEmpty()) {
+                throw new IOException("Missing PNG image data");
+            }
+            if (header.colorType == COLOR_PALETTE && header.palette == null) {
+                throw new IOException("Missing PNG palette");
+            }
+            return new DecodedImage(header.width, header.height, decodeRows(header, data));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated PNG image", e);
+        }
+    }
+
+    private static ByteBuffer decodeRows(final Header header, final List<ByteBuffer> data) throws IOException {
+        int bitsPerPixel = header.depth * header.channels;
+        //Each row starts with its filter type byte.
+        int stride = (header.width * bitsPerPixel + 7) / 8 + 1;
+        int bpp = Math.max(1, bitsPerPixel / 8);
+        int rowSize = header.width * 4;
+        byte[] cur = new byte[stride];
+        byte[] prev = new byte[stride];
+        byte[] rgba = new byte[rowSize];
+        ByteBuffer out = ByteBuffer.allocateDirect(rowSize * header.height);
+        Inflater inflater = new Inflater();
+        try {
+            Iterator<ByteBuffer> chunks = data.iterator();
+            for (int y = 0; y != header.height; ++y) {
+                inflate(inflater, chunks, cur);
+                unfilter(cur, prev, bpp);
+                if (header.colorType == COLOR_RGBA && header.depth == 8) {
+                    out.put(y * rowSize, cur, 1, rowSize);
+                } else {
+                    expand(header, cur, rgba);
+                    out.put(y * rowSize, rgba);
+                }
+                byte[] tmp = prev;
+                prev = cur;
+                cur = tmp;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted PNG image data", e);
+        } finally {
+            inflater.end();
+        }
+        return out;
+    }
+
+    private static void inflate(final Inflater inflater, final Iterator<ByteBuffer> chunks, final byte[] row)
+            throws IOException, DataFormatException {
+        int off = 0;
+        while (off != row.length) {
+            int len = inflater.inflate(row, off, row.length - off);
+            off += len;
+            if (len == 0) {
+                if (!inflater.needsInput() || !chunks.hasNext()) {
+                    throw new IOException("Truncated PNG image data");
+                }
+                inflater.setInput(chunks.next());
+            }
+        }
+    }
+
+    private static void unfilter(final byte[] cur, final byte[] prev, final int bpp) throws IOException {
+        int len = cur.length;
+        switch (cur[0]) {
+            case 0 -> {
+            }
+            case 1 -> {
+                for (int i = 1 + bpp; i < len; ++i) {
+                    cur[i] += cur[i - bpp];
+                }
+            }
+            case 2 -> {
+                for (int i = 1; i < len; ++i) {
+                    cur[i] += prev[i];
+                }
+            }
+            case 3 -> {
+                for (int i = 1; i < len; ++i) {
+                    int left = i > bpp ? cur[i - bpp] & 0xFF : 0;
+                    cur[i] += (left + (prev[i] & 0xFF)) >>> 1;
+                }
+            }
+            case 4 -> {
+                for (int i = 1; i < len; ++i) {
+                    int a = i > bpp ? cur[i - bpp] & 0xFF : 0;
+                    int b = prev[i] & 0xFF;
+                    int c = i > bpp ? prev[i - bpp] & 0xFF : 0;
+                    int p = a + b - c;
+                    int pa = Math.abs(p - a);
+                    int pb = Math.abs(p - b);
+                    int pc = Math.abs(p - c);
+                    cur[i] += pa <= pb && pa <= pc ? a : pb <= pc ? b : c;
+                }
+            }
+            default -> throw new IOException("Invalid PNG filter type " + cur[0]);
+        }
+    }
+
+    private static int sample(final byte[] row, final int index, final int depth) {
+        if (depth == 8) {
+            return row[1 + index] & 0xFF;
+        }
+        if (depth == 16) {
+            return ((row[1 + index * 2] & 0xFF) << 8) | (row[2 + index * 2] & 0xFF);
+        }
+        int bit = index * depth;
+        return (row[1 + (bit >>> 3)] >>> (8 - depth - (bit & 7))) & ((1 << depth) - 1);
+    }
+
+    private static void expand(final Header header, final byte[] row, final byte[] rgba) {
+        int depth = header.depth;
+        //Samples wider than 8 bits keep their high byte, narrower ones are scaled up to the full range.
+        int shift = depth == 16 ? 8 : 0;
+        int scale = depth < 8 ? 255 / ((1 << depth) - 1) : 1;
+        int[] key = header.transparentKey;
+        for (int x = 0; x != header.width; ++x) {
+            int dst = x * 4;
+            switch (header.colorType) {
+                case COLOR_GRAY -> {
+                    int v = sample(row, x, depth);
+                    byte gray = (byte) ((v >>> shift) * scale);
+                    rgba[dst] = gray;
+                    rgba[dst + 1] = gray;
+                    rgba[dst + 2] = gray;
+                    rgba[dst + 3] = key != null && key[0] == v ? 0 : (byte) 0xFF;
+                }
+                case COLOR_GRAY_ALPHA -> {
+                    byte gray = (byte) (sample(row, x * 2, depth) >>> shift);
+                    rgba[dst] = gray;
+                    rgba[dst + 1] = gray;
+                    rgba[dst + 2] = gray;
+                    rgba[dst + 3] = (byte) (sample(row, x * 2 + 1, depth) >>> shift);
+                }
+                case COLOR_RGB -> {
+                    int r = sample(row, x * 3, depth);
+                    int g = sample(row, x * 3 + 1, depth);
+                    int b = sample(row, x * 3 + 2, depth);
+                    rgba[dst] = (byte) (r >>> shift);
+                    rgba[dst + 1] = (byte) (g >>> shift);
+                    rgba[dst + 2] = (byte) (b >>> shift);
+                    rgba[dst + 3] = key != null && key[0] == r && key[1] == g && key[2] == b ? 0 : (byte) 0xFF;
+                }
+                case COLOR_PALETTE -> System.arraycopy(header.palette, sample(row, x, depth) * 4, rgba, dst, 4);
+                default -> {
+                    for (int i = 0; i != 4; ++i) {
+                        rgba[dst + i] = (byte) (sample(row, x * 4 + i, depth) >>> shift);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.factory.image;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Decodes QOI images (see https://qoiformat.org) straight into a buffer of RGBA texels.
+ */
+public final class QoiDecoder implements IImageDecoder {
+    private static final int MAGIC = 0x716F6966; //qoif
+    private static final int HEADER_SIZE = 14;
+    private static final int OP_RGB = 0xFE;
+    private static final int OP_RGBA = 0xFF;
+    private static final int OP_MASK = 0xC0;
+    private static final int OP_INDEX = 0x00;
+    private static final int OP_DIFF = 0x40;
+    private static final int OP_LUMA = 0x80;
+
+    private static int hash(final int r, final int g, final int b, final int a) {
+        return (r * 3 + g * 5 + b * 7 + a * 11) & 63;
+    }
+
+    @Override
+    public DecodedImage decode(final ByteBuffer source) throws IOException {
+        ByteBuffer in = source.slice().order(ByteOrder.BIG_ENDIAN);
+        if (in.remaining() < HEADER_SIZE || in.getInt(0) != MAGIC) {
+            throw new IOException("Not a QOI image");
+        }
+        long width = in.getInt(4) & 0xFFFFFFFFL;
+        long height = in.getInt(8) & 0xFFFFFFFFL;
+        if (width == 0 || height == 0 || width * height * 4 > Integer.MAX_VALUE) {
+            throw new IOException("Invalid QOI image size " + width + "x" + height);
+        }
+        int size = (int) (width * height * 4);
+        ByteBuffer out = ByteBuffer.allocateDirect(size);
+        int[] index = new int[64];
+        int r = 0;
+        int g = 0;
+        int b = 0;
+        int a = 255;
+        int pos = HEADER_SIZE;
+        int run = 0;
+        try {
+            for (int dst = 0; dst != size; dst += 4) {
+                if (run > 0) {
+                    --run;
+                } else {
+                    int b1 = in.get(pos++) & 0xFF;
+                    if (b1 == OP_RGB || b1 == OP_RGBA) {
+                        r = in.get(pos++) & 0xFF;
+                        g = in.get(pos++) & 0xFF;
+                        b = in.get(pos++) & 0xFF;
+                        if (b1 == OP_RGBA) {
+                            a = in.get(pos++) & 0xFF;
+                        }
+                    } else {
+                        switch (b1 & OP_MASK) {
+                            case OP_INDEX -> {
+                                int px = index[b1];
+                                r = px >>> 24;
+                                g = (px >> 16) & 0xFF;
+                                b = (px >> 8) & 0xFF;
+                                a = px & 0xFF;
+                            }
+                            case OP_DIFF -> {
+                                r = (r + ((b1 >> 4) & 3) - 2) & 0xFF;
+                                g = (g + ((b1 >> 2) & 3) - 2) & 0xFF;
+                                b = (b + (b1 & 3) - 2) & 0xFF;
+                            }
+                            case OP_LUMA -> {
+                                int b2 = in.get(pos++) & 0xFF;
+                                int vg = (b1 & 0x3F) - 32;
+                                r = (r + vg - 8 + ((b2 >> 4) & 0xF)) & 0xFF;
+                                g = (g + vg) & 0xFF;
+                                b = (b + vg - 8 + (b2 & 0xF)) & 0xFF;
+                            }
+                            default -> {
+                                run = b1 & 0x3F;
+                            }
+                        }
+                    }
+                    index[hash(r, g, b, a)] = (r << 24) | (g << 16) | (b << 8) | a;
+                }
+                //The output buffer is big endian so the int is written as R, G, B, A.
+                out.putInt(dst, (r << 24) | (g << 16) | (b << 8) | a);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated QOI image", e);
+        }
+        return new DecodedImage((int) width, (int) height, out);
+    }
+}
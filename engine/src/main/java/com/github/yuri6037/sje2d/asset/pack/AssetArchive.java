@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.pack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * A packed asset archive, memory mapped as a whole.
+ * Layout (big endian):
+ *      - header: magic "SJPK", format version, number of entries, reserved.
+ *      - table of contents: for each entry, the length of its UTF-8 name, the name, the offset of its data and the
+ *        length of its data.
+ *      - data of each entry, aligned on DATA_ALIGNMENT bytes.
+ */
+public final class AssetArchive {
+    /**
+     * Magic number at the start of every archive.
+     */
+    public static final int MAGIC = 0x534A504B; //SJPK
+
+    /**
+     * Version of the archive format.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Alignment in bytes of the data of each entry.
+     */
+    public static final int DATA_ALIGNMENT = 16;
+
+    /**
+     * Size in bytes of the archive header.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    private final MappedByteBuffer map;
+    private final HashMap<String, ByteBuffer> entries = new HashMap<>();
+
+    private AssetArchive(final MappedByteBuffer map) throws IOException {
+        this.map = map;
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC) {
+            throw new IOException("Not an asset archive");
+        }
+        if (map.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported asset archive version " + map.getInt(4));
+        }
+        int count = map.getInt(8);
+        ByteBuffer toc = map.duplicate();
+        toc.position(HEADER_SIZE);
+        try {
+            for (int i = 0; i != count; ++i) {
+                byte[] name = new byte[toc.getShort() & 0xFFFF];
+                toc.get(name);
+                long offset = toc.getLong();
+                long length = toc.getLong();
+                if (offset < 0 || length < 0 || offset + length > map.capacity()) {
+                    throw new IOException("Asset archive entry is out of bounds");
+                }
+                entries.put(new String(name, StandardCharsets.UTF_8),
+                        map.slice((int) offset, (int) length).asReadOnlyBuffer());
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupted asset archive table of contents", e);
+        }
+    }
+
+    /**
+     * Opens and maps an asset archive.
+     * @param path the path of the archive file.
+     * @return the opened archive.
+     * @throws IOException if the archive could not be opened or is invalid.
+     */
+    public static AssetArchive open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Asset archive '" + path + "' is larger than 2GB");
+            }
+            //The mapping stays valid after the channel is closed.
+            return new AssetArchive(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the data of an entry. The returned buffer is a read-only slice of the mapping, no data is copied.
+     * @param name the name of the entry.
+     * @return the data of the entry or null if this archive has no such entry.
+     */
+    public ByteBuffer get(final String name) {
+        ByteBuffer buffer = entries.get(name);
+        return buffer == null ? null : buffer.duplicate();
+    }
+
+    /**
+     * @return the names of all entries in this archive.
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * @return the total size in bytes of this archive.
+     */
+    public int getSize() {
+        return map.capacity();
+    }
+}
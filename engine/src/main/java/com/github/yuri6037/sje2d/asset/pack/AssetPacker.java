@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.pack;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Build-time tool which writes a set of files into an asset archive (see AssetArchive).
+ * Usage: java com.github.yuri6037.sje2d.asset.pack.AssetPacker output.pak directory...
+ * Each file is stored under its path relative to the directory it was found in, using '/' as separator.
+ */
+public final class AssetPacker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AssetPacker.class);
+
+    private final TreeMap<String, Path> files = new TreeMap<>();
+
+    /**
+     * Adds a file to the archive.
+     * @param name the name of the entry, as used in pack URLs.
+     * @param file the file to store.
+     * @return this packer.
+     */
+    public AssetPacker add(final String name, final Path file) {
+        if (name.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+            throw new IllegalArgumentException("Entry name is too long: " + name);
+        }
+        files.put(name, file);
+        return this;
+    }
+
+    /**
+     * Adds all files contained in a directory, recursively.
+     * @param root the directory to add.
+     * @return this packer.
+     * @throws IOException if the directory could not be listed.
+     */
+    public AssetPacker addDirectory(final Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            List<Path> list = paths.filter(Files::isRegularFile).toList();
+            for (Path file : list) {
+                add(root.relativize(file).toString().replace(root.getFileSystem().getSeparator(), "/"), file);
+            }
+        }
+        return this;
+    }
+
+    private static long align(final long offset) {
+        return (offset + AssetArchive.DATA_ALIGNMENT - 1) / AssetArchive.DATA_ALIGNMENT
+                * AssetArchive.DATA_ALIGNMENT;
+    }
+
+    /**
+     * Writes the archive.
+     * @param output the path of the archive file to write.
+     * @throws IOException if a file could not be read or the archive could not be written.
+     */
+    public void write(final Path output) throws IOException {
+        int tocSize = 0;
+        for (String name : files.keySet()) {
+            tocSize += Short.BYTES + name.getBytes(StandardCharsets.UTF_8).length + 2 * Long.BYTES;
+        }
+        ByteBuffer toc = ByteBuffer.allocate(AssetArchive.HEADER_SIZE + tocSize);
+        toc.putInt(AssetArchive.MAGIC).putInt(AssetArchive.FORMAT_VERSION).putInt(files.size()).putInt(0);
+        long offset = align(toc.capacity());
+        for (Map.Entry<String, Path> entry : files.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            long size = Files.size(entry.getValue());
+            toc.putShort((short) name.length).put(name).putLong(offset).putLong(size);
+            offset = align(offset + size);
+        }
+        toc.flip();
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (toc.hasRemaining()) {
+                out.write(toc);
+            }
+            for (Map.Entry<String, Path> entry : files.entrySet()) {
+                long start = align(out.position());
+                out.position(start);
+                try (FileChannel in = FileChannel.open(entry.getValue(), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long pos = 0;
+                    while (pos < size) {
+                        pos += in.transferTo(pos, size - pos, out);
+                    }
+                    out.position(start + size);
+                }
+            }
+        }
+        LOGGER.info("Packed {} file(s) into '{}'", files.size(), output);
+    }
+
+    /**
+     * Packs directories into an asset archive.
+     * @param args the output archive path followed by the directories to pack.
+     * @throws IOException if the archive could not be written.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: AssetPacker output.pak directory...");
+            System.exit(1);
+        }
+        AssetPacker packer = new AssetPacker();
+        for (int i = 1; i < args.length; ++i) {
+            packer.addDirectory(Paths.get(args[i]));
+        }
+        packer.write(Paths.get(args[0]));
+    }
+}
@@ -33,9 +33,9 @@ package com.github.yuri6037.sje2d.asset.protocol;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.system.IAssetProtocol;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.SeekableFileStream;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
+import java.nio.file.Paths;
 
 public final class FileProtocol implements IAssetProtocol {
     @Override
@@ -45,8 +45,7 @@ public final class FileProtocol implements IAssetProtocol {
 
     @Override
     public IAssetStream open(final AssetURL url) throws Exception {
-        InputStream stream = new FileInputStream(url.getPath());
-        return new BasicAssetStream(stream);
+        return new SeekableFileStream(Paths.get(url.getPath()));
     }
 
     @Override
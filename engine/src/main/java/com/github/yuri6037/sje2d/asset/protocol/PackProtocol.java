@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.asset.protocol;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.system.IAssetProtocol;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.ByteBufferStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.pack.AssetArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protocol which reads assets from packed asset archives (see AssetPacker).
+ * URL format: pack://path/of/entry?archive=assets.pak, the archive defaults to assets.pak in the working directory.
+ * Each archive is opened and memory mapped once; the returned streams are seekable slices of the mapping.
+ */
+public final class PackProtocol implements IAssetProtocol {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PackProtocol.class);
+    private static final String DEFAULT_ARCHIVE = "assets.pak";
+
+    private final ConcurrentHashMap<Path, AssetArchive> archives = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean canProvideMimeType() {
+        return false;
+    }
+
+    private AssetArchive getArchive(final Path path) throws IOException {
+        try {
+            return archives.computeIfAbsent(path, (p) -> {
+                try {
+                    LOGGER.debug("Mapping asset archive '{}'", p);
+                    return AssetArchive.open(p);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public IAssetStream open(final AssetURL url) throws Exception {
+        String archive = url.getParameter("archive");
+        Path path = Paths.get(archive == null ? DEFAULT_ARCHIVE : archive).toAbsolutePath().normalize();
+        ByteBuffer data = getArchive(path).get(url.getPath());
+        if (data == null) {
+            LOGGER.error("Could not find '{}' in asset archive '{}'", url.getPath(), path);
+            return null;
+        }
+        return new ByteBufferStream(data, null);
+    }
+
+    @Override
+    public String getName() {
+        return "pack";
+    }
+}
@@ -34,10 +34,12 @@ import com.github.yuri6037.sje2d.Application;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.system.IAssetProtocol;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.SeekableFileStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Paths;
 
 public final class ResourceProtocol implements IAssetProtocol {
     private static final Logger LOGGER = LoggerFactory.getLogger(ResourceProtocol.class);
@@ -48,18 +50,22 @@ public final class ResourceProtocol implements IAssetProtocol {
     }
 
     @Override
-    public IAssetStream open(final AssetURL url) {
-        InputStream stream;
+    public IAssetStream open(final AssetURL url) throws Exception {
+        URL resource;
         if ("engine".equals(url.getParameter("scope"))) {
-            stream = Application.class.getClassLoader().getResourceAsStream(url.getPath());
+            resource = Application.class.getClassLoader().getResource(url.getPath());
         } else {
-            stream = Application.getResource(url.getPath());
+            resource = Application.getResourceURL(url.getPath());
         }
-        if (stream == null) {
+        if (resource == null) {
             LOGGER.error("Could not find resource '{}'", url.getPath());
             return null;
         }
-        return new BasicAssetStream(stream);
+        if ("file".equals(resource.getProtocol())) {
+            //Resources of an exploded class path (IDE runs, tests) are plain files which can be read in place.
+            return new SeekableFileStream(Paths.get(resource.toURI()));
+        }
+        return new BasicAssetStream(resource.openStream());
     }
 
     @Override
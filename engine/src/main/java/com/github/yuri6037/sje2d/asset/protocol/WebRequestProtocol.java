@@ -31,15 +31,40 @@
 package com.github.yuri6037.sje2d.asset.protocol;
 
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.cache.HttpCache;
 import com.github.yuri6037.sje2d.asset.engine.system.IAssetProtocol;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.ByteBufferStream;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
+/**
+ * Base of the HTTP protocols.
+ * Requests go through a shared HttpClient so that connections are kept alive between assets. Responses carrying
+ * an ETag or a Last-Modified date are stored in the HttpCache and revalidated with a conditional request the next
+ * time, a 304 answer being served from the cache.
+ * When parallel downloads are enabled (the default, see setParallelDownloads) the first request asks for the
+ * first RANGE_SIZE bytes only; if the server answers with a partial response and the asset is larger, the rest
+ * is fetched by several concurrent range requests. Servers which ignore ranges simply answer with the whole asset.
+ */
 public abstract class WebRequestProtocol implements IAssetProtocol {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebRequestProtocol.class);
+    private static final String PROP_PARALLEL = "com.github.yuri6037.sje2d.http.parallel";
     private static final Map<String, String> CONTENT_TYPE_MAP = Map.of(
             "image/png", "texture/png",
             "image/jpeg", "texture/jpeg",
@@ -48,6 +73,40 @@ public abstract class WebRequestProtocol implements IAssetProtocol {
             "text/x-glsl", "shader/glsl"
     );
 
+    /**
+     * The size of the first range requested when parallel downloads are enabled; only assets larger than this are
+     * downloaded in parallel.
+     */
+    public static final int RANGE_SIZE = 1024 * 1024;
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_PARTIAL = 206;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    private static volatile int parallelDownloads = Integer.getInteger(PROP_PARALLEL, 4);
+
+    private static final class ClientHolder {
+        private static final HttpClient CLIENT = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    /**
+     * Sets the number of concurrent range requests used to download large assets. This may also be set at
+     * start-up with -Dcom.github.yuri6037.sje2d.http.parallel=n.
+     * @param count the number of concurrent requests, 1 or less to always download assets in a single request.
+     */
+    public static void setParallelDownloads(final int count) {
+        parallelDownloads = count;
+    }
+
+    /**
+     * @return the number of concurrent range requests used to download large assets.
+     */
+    public static int getParallelDownloads() {
+        return parallelDownloads;
+    }
+
     @Override
     public final boolean canProvideMimeType() {
         return true;
@@ -61,18 +120,141 @@ public abstract class WebRequestProtocol implements IAssetProtocol {
         return mimeType != null ? mimeType : contentType;
     }
 
+    private static URI toURI(final String str) throws IOException {
+        try {
+            return new URI(str);
+        } catch (URISyntaxException e) {
+            //Asset URLs are often written unescaped (spaces in paths), let the component constructor quote them.
+            URL url = new URL(str);
+            try {
+                return new URI(url.getProtocol(), url.getUserInfo(), url.getHost(), url.getPort(), url.getPath(),
+                        url.getQuery(), null);
+            } catch (URISyntaxException e1) {
+                throw new IOException("Invalid URL '" + str + "'", e1);
+            }
+        }
+    }
+
+    private static long getTotalLength(final HttpResponse<?> response) throws IOException {
+        //Content-Range: bytes 0-1023/4096
+        String range = response.headers().firstValue("Content-Range").orElse("");
+        int id = range.lastIndexOf('/');
+        if (!range.startsWith("bytes 0-") || id == -1) {
+            throw new IOException("Unsupported Content-Range '" + range + "'");
+        }
+        try {
+            return Long.parseLong(range.substring(id + 1));
+        } catch (NumberFormatException e) {
+            throw new IOException("Unsupported Content-Range '" + range + "'", e);
+        }
+    }
+
+    private static ByteBuffer downloadRanges(final URI uri, final HttpResponse<InputStream> first,
+                                             final String validator) throws IOException, InterruptedException {
+        long total = getTotalLength(first);
+        if (total > Integer.MAX_VALUE) {
+            first.body().close();
+            throw new IOException("Asset '" + uri + "' is too large (" + total + " bytes)");
+        }
+        byte[] head;
+        try (InputStream is = first.body()) {
+            head = is.readAllBytes();
+        }
+        int size = (int) total;
+        int offset = head.length;
+        if (offset == size) {
+            return ByteBuffer.wrap(head);
+        }
+        ByteBuffer data = ByteBuffer.allocate(size);
+        data.put(0, head);
+        int parts = Math.max(1, parallelDownloads);
+        int partSize = (size - offset + parts - 1) / parts;
+        List<CompletableFuture<HttpResponse<byte[]>>> futures = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+        for (int start = offset; start < size; start += partSize) {
+            int end = Math.min(start + partSize, size) - 1;
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET().header("Range", "bytes=" + start + "-"
+                    + end);
+            if (validator != null) {
+                //Make sure all parts come from the same version of the asset.
+                builder.header("If-Range", validator);
+            }
+            futures.add(ClientHolder.CLIENT.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray()));
+            starts.add(start);
+        }
+        LOGGER.debug("Downloading '{}' ({} bytes) in {} parallel range request(s)", uri, size, futures.size());
+        try {
+            for (int i = 0; i != futures.size(); ++i) {
+                HttpResponse<byte[]> response = futures.get(i).get();
+                int start = starts.get(i);
+                int expected = Math.min(start + partSize, size) - start;
+                if (response.statusCode() != HTTP_PARTIAL || response.body().length != expected) {
+                    throw new IOException("Asset '" + uri + "' changed or was truncated during download");
+                }
+                data.put(start, response.body());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to download a range of '" + uri + "'", e.getCause());
+        } finally {
+            for (CompletableFuture<HttpResponse<byte[]>> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return data;
+    }
+
     @Override
     public final IAssetStream open(final AssetURL url) throws Exception {
-        URL webUrl = new URL(url.withMimeType(null).toString());
-        HttpURLConnection request = (HttpURLConnection) webUrl.openConnection();
-        request.setRequestMethod("GET");
-        request.setInstanceFollowRedirects(false);
+        URI uri = toURI(url.withMimeType(null).toString());
+        HttpCache cache = HttpCache.getDefault();
+        String key = HttpCache.key(uri.toString());
+        HttpCache.Entry cached = cache.get(key);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).GET();
+        if (cached != null) {
+            if (cached.etag() != null) {
+                builder.header("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() != null) {
+                builder.header("If-Modified-Since", cached.lastModified());
+            }
+        }
+        if (parallelDownloads > 1) {
+            builder.header("Range", "bytes=0-" + (RANGE_SIZE - 1));
+        }
+        HttpResponse<InputStream> response = ClientHolder.CLIENT.send(builder.build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        if (status == HTTP_NOT_MODIFIED && cached != null) {
+            response.body().close();
+            LOGGER.debug("Asset '{}' not modified, using cached copy", uri);
+            return new ByteBufferStream(cached.data(), cached.mimeType());
+        }
+        if (status != HTTP_OK && status != HTTP_PARTIAL) {
+            response.body().close();
+            throw new IOException("Failed to download '" + uri + "': HTTP status " + status);
+        }
         //Store the asset mime-type in X-Asset-Type if it exists otherwise guess it from Content-Type.
-        String mimeType = request.getHeaderField("X-Asset-Type");
-        if (mimeType == null) {
-            mimeType = attemptInferMimeType(request.getHeaderField("Content-Type"));
+        String mimeType = response.headers().firstValue("X-Asset-Type")
+                .orElseGet(() -> attemptInferMimeType(response.headers().firstValue("Content-Type").orElse(null)));
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        boolean cacheable = cache.isEnabled() && (etag != null || lastModified != null)
+                && !response.headers().firstValue("Cache-Control").orElse("").contains("no-store");
+        ByteBuffer data;
+        if (status == HTTP_PARTIAL) {
+            //If-Range only accepts strong validators.
+            String validator = etag != null && !etag.startsWith("W/") ? etag : lastModified;
+            data = downloadRanges(uri, response, validator);
+        } else if (cacheable) {
+            try (InputStream is = response.body()) {
+                data = ByteBuffer.wrap(is.readAllBytes());
+            }
+        } else {
+            return new BasicAssetStream(mimeType, response.body());
+        }
+        if (cacheable) {
+            cache.put(key, etag, lastModified, mimeType, data);
         }
-        InputStream is = request.getInputStream();
-        return new BasicAssetStream(mimeType, is);
+        return new ByteBufferStream(data, mimeType);
     }
 }
@@ -46,6 +46,15 @@ public final class MathUtils {
         return (value & (value - 1)) == 0;
     }
 
+    /**
+     * Rounds a number up to the next power of 2.
+     * @param value the number to round, must be positive and at most 2^30.
+     * @return the smallest power of 2 greater than or equal to value.
+     */
+    public static int nextPowerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
     /**
      * Clamps the given number.
      * @param <T> the type of number to clamp.
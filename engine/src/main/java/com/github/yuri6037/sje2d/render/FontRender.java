@@ -34,6 +34,7 @@ import com.github.yuri6037.sje2d.asset.Font;
 import com.github.yuri6037.sje2d.asset.FontBitmap;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.asset.engine.manager.AssetManagerProxy;
+import com.github.yuri6037.sje2d.asset.engine.manager.Priority;
 import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
 import com.github.yuri6037.sje2d.util.UTF32Str;
 
@@ -131,8 +132,8 @@ public final class FontRender {
             AssetStore<FontBitmap>.Ref bitmap = assets.get(FontBitmap.class, font.getVirtualPath(plane));
             if (bitmap == null) {
                 AssetURL url = font.getURL(c);
-                if (!queuedBitmaps.contains(url)) {
-                    assets.queue(url);
+                //If the asset manager is lagging behind, try again on the next frame instead of stalling this one.
+                if (!queuedBitmaps.contains(url) && assets.tryQueue(url, Priority.Immediate) != null) {
                     queuedBitmaps.add(url);
                 }
                 return null;
@@ -208,17 +209,19 @@ public final class FontRender {
                 queued = true;
                 continue;
             }
-            glBindTexture(GL_TEXTURE_2D, bitmap.get().getGLId());
+            bitmap.get().bind();
             int width = bitmap.get().getWidth(c);
             int descent = bitmap.get().getDescent();
             int bearingX = bitmap.get().getBearingX();
             int cPlane = c % 256;
             int gx = (cPlane % 16);
             int gy = (cPlane - gx) / 16;
-            float u = gx / 16f;
-            float v = gy / 16f;
-            float u1 = u + 1 / 16f;
-            float v1 = v + 1 / 16f;
+            //Glyph coordinates are relative to the bitmap image, excluding any padding.
+            Rect uvRect = bitmap.get().getUVRect();
+            float u = uvRect.x() + gx / 16f * uvRect.getWidth();
+            float v = uvRect.y() + gy / 16f * uvRect.getHeight();
+            float u1 = u + uvRect.getWidth() / 16f;
+            float v1 = v + uvRect.getHeight() / 16f;
 
             if (rotation != 0.0f) {
                 glPushMatrix();
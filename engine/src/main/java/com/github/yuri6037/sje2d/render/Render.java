@@ -40,7 +40,10 @@ import static org.lwjgl.opengl.GL12.*;
 //CHECKSTYLE ON
 
 public final class Render {
-    private Rect textureRect = new Rect(0, 0, 1, 1);
+    private static final Rect FULL_RECT = new Rect(0, 0, 1, 1);
+
+    private Rect textureRect = FULL_RECT;
+    private Rect uvRect = FULL_RECT;
     private Point transformCenter = new Point(0, 0);
     private float rotation = 0;
     private float scale = 1;
@@ -71,10 +74,19 @@ public final class Render {
 
     /**
      * Sets the normalized texture coordinates as a rectangle. The default is (0, 0, 1, 1).
+     * The coordinates are relative to the image of the texture, excluding any padding (see Texture.getUVRect).
      * @param rect the new rectangle.
      */
     public void setTextureRect(final Rect rect) {
-        textureRect = Objects.requireNonNullElseGet(rect, () -> new Rect(0, 0, 1, 1));
+        textureRect = Objects.requireNonNullElse(rect, FULL_RECT);
+    }
+
+    private float u(final float x) {
+        return uvRect.x() + x * uvRect.getWidth();
+    }
+
+    private float v(final float y) {
+        return uvRect.y() + y * uvRect.getHeight();
     }
 
     /**
@@ -91,11 +103,13 @@ public final class Render {
      */
     public void setTexture(final Texture texture) {
         if (texture == null) {
+            uvRect = FULL_RECT;
             glDisable(GL_TEXTURE_2D);
             return;
         }
+        uvRect = texture.getUVRect();
         glEnable(GL_TEXTURE_2D);
-        glBindTexture(GL_TEXTURE_2D, texture.getGLId());
+        texture.bind();
     }
 
     /**
@@ -127,16 +141,16 @@ public final class Render {
         }
         glBegin(GL_QUADS);
         {
-            glTexCoord2f(textureRect.x(), textureRect.y());
+            glTexCoord2f(u(textureRect.x()), v(textureRect.y()));
             glVertex2f(x, y);
 
-            glTexCoord2f(textureRect.x1(), textureRect.y());
+            glTexCoord2f(u(textureRect.x1()), v(textureRect.y()));
             glVertex2f(width + x, y);
 
-            glTexCoord2f(textureRect.x1(), textureRect.y1());
+            glTexCoord2f(u(textureRect.x1()), v(textureRect.y1()));
             glVertex2f(width + x, height + y);
 
-            glTexCoord2f(textureRect.x(), textureRect.y1());
+            glTexCoord2f(u(textureRect.x()), v(textureRect.y1()));
             glVertex2f(x, height + y);
         }
         glEnd();
@@ -179,14 +193,14 @@ public final class Render {
         for (int i = 0; i < vertices; ++i) {
             float x1 = (float) Math.cos(angle) * radius;
             float y1 = (float) Math.sin(angle) * radius;
-            glTexCoord2f(0, 0);
+            glTexCoord2f(u(0), v(0));
             glVertex2f(centerX, centerY);
-            glTexCoord2f(1, 0);
+            glTexCoord2f(u(1), v(0));
             glVertex2f(centerX + x1, centerY + y1);
             angle += offset;
             float x2 = (float) Math.cos(angle) * radius;
             float y2 = (float) Math.sin(angle) * radius;
-            glTexCoord2f(1, 1);
+            glTexCoord2f(u(1), v(1));
             glVertex2f(centerX + x2, centerY + y2);
         }
         glEnd();
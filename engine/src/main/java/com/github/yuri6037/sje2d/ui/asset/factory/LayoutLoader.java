@@ -101,6 +101,7 @@ public final class LayoutLoader extends XmlReflectionLoader<Layout> {
 
     @Override
     protected void loadDocument(final Document document) throws Exception {
+        componentsById.clear();
         Element root = document.getDocumentElement();
         String vpath = root.hasAttribute("strings") ? root.getAttribute("strings") : null;
         if (vpath != null) {
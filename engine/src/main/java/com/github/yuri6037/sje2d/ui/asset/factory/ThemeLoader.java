@@ -48,6 +48,7 @@ import java.io.InputStream;
 
 public final class ThemeLoader extends AsyncLoader<Theme> {
     private Theme theme;
+    private ThemeType xml = null;
     private final InputStream stream;
 
     /**
@@ -62,8 +63,10 @@ public final class ThemeLoader extends AsyncLoader<Theme> {
 
     @Override
     public void loadAsync() throws Exception {
-        JAXBContext ctx = JAXBContext.newInstance(ThemeType.class);
-        ThemeType xml = ctx.createUnmarshaller().unmarshal(new StreamSource(stream), ThemeType.class).getValue();
+        if (xml == null) {
+            JAXBContext ctx = JAXBContext.newInstance(ThemeType.class);
+            xml = ctx.createUnmarshaller().unmarshal(new StreamSource(stream), ThemeType.class).getValue();
+        }
         theme = new Theme();
         if (xml.getRectangle() != null) {
             theme.setRectangleStyle(awaitAsset(RectangleStyle.class, xml.getRectangle()));
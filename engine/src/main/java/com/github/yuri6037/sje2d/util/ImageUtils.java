@@ -30,30 +30,195 @@
 
 package com.github.yuri6037.sje2d.util;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
 import java.nio.ByteBuffer;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public final class ImageUtils {
+    /**
+     * The number of pixels above which imageToBuffer splits the conversion across the common ForkJoinPool.
+     */
+    public static final int PARALLEL_THRESHOLD = 1024 * 1024;
+
+    private static final int ROWS_PER_TASK = 64;
+
     private ImageUtils() {
     }
 
+    @FunctionalInterface
+    private interface IRowConverter {
+        void convert(int y0, int y1);
+    }
+
+    private static final class ConvertTask extends RecursiveAction {
+        private final IRowConverter converter;
+        private final int y0;
+        private final int y1;
+
+        ConvertTask(final IRowConverter converter, final int y0, final int y1) {
+            this.converter = converter;
+            this.y0 = y0;
+            this.y1 = y1;
+        }
+
+        @Override
+        protected void compute() {
+            if (y1 - y0 <= ROWS_PER_TASK) {
+                converter.convert(y0, y1);
+                return;
+            }
+            int mid = (y0 + y1) >>> 1;
+            invokeAll(new ConvertTask(converter, y0, mid), new ConvertTask(converter, mid, y1));
+        }
+    }
+
+    /**
+     * Decodes an image from memory.
+     * The source is read in place rather than through the caching stream ImageIO.read puts around InputStreams.
+     * @param source the encoded image, from its position up to its limit; the position is unchanged.
+     * @return the decoded image.
+     * @throws IOException if the image format is not supported or the image could not be decoded.
+     */
+    public static BufferedImage read(final ByteBuffer source) throws IOException {
+        try (ImageInputStream stream = new ByteBufferImageInputStream(source)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                return reader.read(0, reader.getDefaultReadParam());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
     /**
      * Converts a Java BufferedImage to a contiguous array of texels in RGBA format.
+     * Images of type INT_ARGB, INT_RGB, 3BYTE_BGR and 4BYTE_ABGR are converted straight from their raster data,
+     * other images go through BufferedImage.getRGB one row at a time. Images larger than PARALLEL_THRESHOLD are
+     * converted in bands of rows on the common ForkJoinPool.
      * @param image the image to convert.
      * @return the newly allocated ByteBuffer.
      */
     public static ByteBuffer imageToBuffer(final BufferedImage image) {
         ByteBuffer buffer = ByteBuffer.allocateDirect(image.getWidth() * image.getHeight() * 4);
-        for (int x = 0; x != image.getWidth(); ++x) {
-            for (int y = 0; y != image.getHeight(); ++y) {
-                int argb = image.getRGB(x, y);
-                int offset = y * image.getWidth() * 4 + x * 4;
-                buffer.put(offset, (byte) ((argb >> 16) & 0xFF)); //R channel
-                buffer.put(offset + 1, (byte) ((argb >> 8) & 0xFF)); //G channel
-                buffer.put(offset + 2, (byte) (argb & 0xFF)); //B channel
-                buffer.put(offset + 3, (byte) ((argb >> 24) & 0xFF)); //A channel
-            }
+        IRowConverter converter = getRasterConverter(image, buffer);
+        if (converter == null) {
+            converter = (y0, y1) -> convertRows(image, buffer, y0, y1);
+        }
+        if ((long) image.getWidth() * image.getHeight() >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new ConvertTask(converter, 0, image.getHeight()));
+        } else {
+            converter.convert(0, image.getHeight());
         }
         return buffer;
     }
+
+    private static void convertRows(final BufferedImage image, final ByteBuffer buffer, final int y0, final int y1) {
+        int width = image.getWidth();
+        int[] row = new int[width];
+        //The buffer is big endian so each int is written as R, G, B, A.
+        IntBuffer out = buffer.asIntBuffer().position(y0 * width);
+        for (int y = y0; y != y1; ++y) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x != width; ++x) {
+                row[x] = Integer.rotateLeft(row[x], 8);
+            }
+            out.put(row);
+        }
+    }
+
+    private static IRowConverter getRasterConverter(final BufferedImage image, final ByteBuffer buffer) {
+        WritableRaster raster = image.getRaster();
+        SampleModel model = raster.getSampleModel();
+        //Sub-images share the data of their parent at an offset, leave them to the generic path.
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0
+                || raster.getDataBuffer().getNumBanks() != 1) {
+            return null;
+        }
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_RGB -> {
+                if (!(model instanceof SinglePixelPackedSampleModel packed)) {
+                    return null;
+                }
+                DataBufferInt data = (DataBufferInt) raster.getDataBuffer();
+                boolean alpha = image.getType() == BufferedImage.TYPE_INT_ARGB;
+                return (y0, y1) -> convertInts(image, data, packed.getScanlineStride(), alpha, buffer, y0, y1);
+            }
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR -> {
+                if (!(model instanceof ComponentSampleModel component)) {
+                    return null;
+                }
+                DataBufferByte data = (DataBufferByte) raster.getDataBuffer();
+                return (y0, y1) -> convertBytes(image, data.getData(), data.getOffset(), component, buffer, y0, y1);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    private static void convertInts(final BufferedImage image, final DataBufferInt data, final int stride,
+                                    final boolean alpha, final ByteBuffer buffer, final int y0, final int y1) {
+        int[] pixels = data.getData();
+        int offset = data.getOffset();
+        int width = image.getWidth();
+        int[] row = new int[width];
+        IntBuffer out = buffer.asIntBuffer().position(y0 * width);
+        for (int y = y0; y != y1; ++y) {
+            int base = offset + y * stride;
+            if (alpha) {
+                for (int x = 0; x != width; ++x) {
+                    row[x] = Integer.rotateLeft(pixels[base + x], 8);
+                }
+            } else {
+                for (int x = 0; x != width; ++x) {
+                    row[x] = (pixels[base + x] << 8) | 0xFF;
+                }
+            }
+            out.put(row);
+        }
+    }
+
+    private static void convertBytes(final BufferedImage image, final byte[] data, final int offset,
+                                     final ComponentSampleModel model, final ByteBuffer buffer, final int y0,
+                                     final int y1) {
+        int width = image.getWidth();
+        int pixelStride = model.getPixelStride();
+        int stride = model.getScanlineStride();
+        //Band offsets are given in R, G, B(, A) order whatever the memory layout is.
+        int[] bands = model.getBandOffsets();
+        int r = bands[0];
+        int g = bands[1];
+        int b = bands[2];
+        int a = bands.length > 3 ? bands[3] : -1;
+        byte[] row = new byte[width * 4];
+        for (int y = y0; y != y1; ++y) {
+            int src = offset + y * stride;
+            for (int dst = 0; dst != row.length; dst += 4) {
+                row[dst] = data[src + r];
+                row[dst + 1] = data[src + g];
+                row[dst + 2] = data[src + b];
+                row[dst + 3] = a == -1 ? (byte) 0xFF : data[src + a];
+                src += pixelStride;
+            }
+            buffer.put(y * row.length, row);
+        }
+    }
 }
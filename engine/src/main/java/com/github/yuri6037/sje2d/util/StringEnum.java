@@ -64,7 +64,7 @@ public final class StringEnum<T> {
         if (objects.length % 2 != 0) {
             throw new IllegalArgumentException("This function expects a list of (String, E) tuples");
         }
-        for (int i = 0; i != objects.length - 2; i += 2) {
+        for (int i = 0; i != objects.length; i += 2) {
             try {
                 String str = (String) objects[i];
                 //This is safe because 1: this is only intended to be used at init time,
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.ISeekableAssetStream;
+import com.github.yuri6037.sje2d.asset.pack.AssetArchive;
+import com.github.yuri6037.sje2d.asset.pack.AssetPacker;
+import com.github.yuri6037.sje2d.asset.protocol.PackProtocol;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class TestAssetArchive {
+    private static final int SIZE = 1000;
+
+    private Path directory;
+    private Path archive;
+    private byte[] binary;
+
+    /**
+     * Creates a directory of test files and packs it.
+     * @throws IOException if the archive could not be created.
+     */
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("sje2d-pack");
+        Path root = Files.createDirectory(directory.resolve("root"));
+        Files.writeString(root.resolve("a.txt"), "hello");
+        Files.createDirectory(root.resolve("sub"));
+        binary = new byte[SIZE];
+        for (int i = 0; i != SIZE; ++i) {
+            binary[i] = (byte) (i * 7);
+        }
+        Files.write(root.resolve("sub").resolve("b.bin"), binary);
+        archive = directory.resolve("test.pak");
+        new AssetPacker().addDirectory(root).write(archive);
+    }
+
+    /**
+     * Deletes the test files.
+     * @throws IOException if the files could not be deleted.
+     */
+    @After
+    public void cleanup() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Test that the packed entries are found with their exact content.
+     * @throws IOException if the archive could not be read.
+     */
+    @Test
+    public void entries() throws IOException {
+        AssetArchive pack = AssetArchive.open(archive);
+        Assert.assertEquals(Set.of("a.txt", "sub/b.bin"), pack.getNames());
+        Assert.assertEquals(ByteBuffer.wrap("hello".getBytes(StandardCharsets.US_ASCII)), pack.get("a.txt"));
+        ByteBuffer data = pack.get("sub/b.bin");
+        Assert.assertTrue(data.isDirect());
+        Assert.assertEquals(ByteBuffer.wrap(binary), data);
+        Assert.assertNull(pack.get("missing"));
+    }
+
+    /**
+     * Test that the pack protocol returns seekable streams over the archive entries.
+     * @throws Exception if the stream could not be opened or read.
+     */
+    @Test
+    public void protocol() throws Exception {
+        PackProtocol protocol = new PackProtocol();
+        IAssetStream stream = protocol.open(new AssetURL("pack://sub/b.bin?archive=" + archive));
+        Assert.assertTrue(stream instanceof ISeekableAssetStream);
+        byte[] buffer = new byte[SIZE + 1];
+        Assert.assertEquals(SIZE, stream.read(buffer));
+        Assert.assertEquals(-1, stream.read());
+        ((ISeekableAssetStream) stream).seek(SIZE - 1);
+        Assert.assertEquals(binary[SIZE - 1] & 0xFF, stream.read());
+        stream.close();
+        Assert.assertNull(protocol.open(new AssetURL("pack://missing?archive=" + archive)));
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.engine.map.AssetMap;
+import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
+import com.github.yuri6037.sje2d.asset.engine.system.IAsset;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestAssetMap {
+    private static final int LADDER_DEPTH = 64;
+    private static final long LADDER_TIMEOUT_MILLIS = 5000;
+    private static final int THREADS = 4;
+    private static final int ITERATIONS = 20000;
+    private static final long CONCURRENT_TIMEOUT_MILLIS = 30000;
+
+    private static AssetStore<com.github.yuri6037.sje2d.test.asset.Test> newStore(final String vpath) {
+        return new AssetStore<>(vpath, null);
+    }
+
+    /**
+     * Test that uses and locks of an asset are visible on all its dependencies, including through a diamond.
+     */
+    @Test
+    public void aggregates() {
+        AssetMap map = new AssetMap();
+        map.push(newStore("root"));
+        map.push(newStore("left"), List.of("root"));
+        map.push(newStore("right"), List.of("root"));
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test> leaf = newStore("leaf");
+        map.push(leaf, List.of("left", "right"));
+        Assert.assertFalse(map.isInUse("root"));
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref = leaf.new Ref();
+        Assert.assertTrue(map.isInUse("root"));
+        Assert.assertTrue(map.isInUse("left"));
+        Assert.assertTrue(map.isInUse("right"));
+        ref.close();
+        Assert.assertFalse(map.isInUse("root"));
+        Assert.assertFalse(map.isInUse("left"));
+        map.lock("left");
+        Assert.assertTrue(map.isLocked("root"));
+        Assert.assertFalse(map.isLocked("right"));
+        Assert.assertFalse(map.isLocked("leaf"));
+        map.unlock("left");
+        Assert.assertFalse(map.isLocked("root"));
+    }
+
+    /**
+     * Test that uses and locks propagate through a ladder of diamonds, which has a number of paths from the top to
+     * the bottom exponential in its depth, without visiting each path.
+     */
+    @Test(timeout = LADDER_TIMEOUT_MILLIS)
+    public void diamondLadder() {
+        AssetMap map = new AssetMap();
+        map.push(newStore("left0"));
+        map.push(newStore("right0"));
+        for (int i = 1; i != LADDER_DEPTH; ++i) {
+            List<String> deps = List.of("left" + (i - 1), "right" + (i - 1));
+            map.push(newStore("left" + i), deps);
+            map.push(newStore("right" + i), deps);
+        }
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test> top = newStore("top");
+        map.push(top, List.of("left" + (LADDER_DEPTH - 1), "right" + (LADDER_DEPTH - 1)));
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref = top.new Ref();
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref1 = ref.newRef();
+        Assert.assertTrue(map.isInUse("left0"));
+        Assert.assertTrue(map.isInUse("right0"));
+        ref.close();
+        Assert.assertTrue(map.isInUse("right0"));
+        ref1.close();
+        Assert.assertFalse(map.isInUse("left0"));
+        Assert.assertFalse(map.isInUse("right" + (LADDER_DEPTH - 1)));
+        map.lock("top");
+        Assert.assertTrue(map.isLocked("left0"));
+        map.remove("top");
+        Assert.assertFalse(map.isLocked("left0"));
+        Assert.assertFalse(map.isLocked("right" + (LADDER_DEPTH - 1)));
+    }
+
+    /**
+     * Test that the counters are right once references taken and released concurrently with changes to the graph
+     * are all closed.
+     * @throws Exception if a worker thread failed.
+     */
+    @Test(timeout = CONCURRENT_TIMEOUT_MILLIS)
+    public void concurrentUses() throws Exception {
+        AssetMap map = new AssetMap();
+        map.push(newStore("root"));
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test> leaf = newStore("leaf");
+        map.push(leaf, List.of("root"));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i != THREADS; ++i) {
+            threads[i] = new Thread(() -> {
+                while (running.get()) {
+                    leaf.new Ref().close();
+                    map.lock("root");
+                    map.unlock("root");
+                }
+            });
+            threads[i].start();
+        }
+        for (int i = 0; i != ITERATIONS; ++i) {
+            map.push(newStore("root"));
+            map.push(newStore("middle"), List.of("root"));
+            map.push(leaf, List.of("middle", "root"));
+            map.remove("middle");
+        }
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertFalse(map.isInUse("root"));
+        Assert.assertFalse(map.isLocked("root"));
+        Assert.assertFalse(map.isInUse("leaf"));
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref = leaf.new Ref();
+        map.lock("leaf");
+        Assert.assertTrue(map.isInUse("root"));
+        Assert.assertTrue(map.isLocked("root"));
+        ref.close();
+        map.unlock("leaf");
+        Assert.assertFalse(map.isInUse("root"));
+        Assert.assertFalse(map.isLocked("root"));
+    }
+
+    /**
+     * Test that removing an asset removes all links to it, whichever end of the dependency is removed first.
+     */
+    @Test
+    public void remove() {
+        AssetMap map = new AssetMap();
+        map.push(newStore("root"));
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test> leaf = newStore("leaf");
+        map.push(leaf, List.of("root"));
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref = leaf.new Ref();
+        map.remove("leaf");
+        Assert.assertTrue(map.getDependents("root").isEmpty());
+        Assert.assertFalse(map.isInUse("root"));
+        ref.close();
+        Assert.assertFalse(map.isInUse("root"));
+        map.push(leaf, List.of("root"));
+        map.remove("root");
+        Assert.assertTrue(map.getDependencies("leaf").isEmpty());
+        Assert.assertEquals(1, map.len());
+    }
+
+    /**
+     * Test namespace and type queries, including after removing assets.
+     */
+    @Test
+    public void queries() {
+        AssetMap map = new AssetMap();
+        map.push(new AssetStore<>("ui/button", new com.github.yuri6037.sje2d.test.asset.Test("button", false)));
+        map.push(new AssetStore<>("ui/theme/dark", new com.github.yuri6037.sje2d.test.asset.Test("dark", false)));
+        map.push(new AssetStore<>("uix/label", new com.github.yuri6037.sje2d.test.asset.Test("label", false)));
+        map.push(new AssetStore<>("ui", new com.github.yuri6037.sje2d.test.asset.Test("ui", false)));
+        List<String> ui = map.getAllInNamespace("ui");
+        Assert.assertEquals(2, ui.size());
+        Assert.assertTrue(ui.containsAll(List.of("ui/button", "ui/theme/dark")));
+        Assert.assertEquals(List.of("ui/theme/dark"), map.getAllInNamespace("ui/theme"));
+        Assert.assertEquals(4, map.getAllOfType(com.github.yuri6037.sje2d.test.asset.Test.class).size());
+        Assert.assertEquals(4, map.getAllOfType(IAsset.class).size());
+        Assert.assertEquals(2, map.getAllOfType(com.github.yuri6037.sje2d.test.asset.Test.class, "ui").size());
+        map.remove("ui/theme/dark");
+        Assert.assertEquals(List.of("ui/button"), map.getAllInNamespace("ui"));
+        Assert.assertTrue(map.getAllInNamespace("ui/theme").isEmpty());
+        Assert.assertEquals(3, map.getAllOfType(com.github.yuri6037.sje2d.test.asset.Test.class).size());
+    }
+}
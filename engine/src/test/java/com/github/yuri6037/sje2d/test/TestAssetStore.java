@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
+import com.github.yuri6037.sje2d.asset.engine.map.LeakDetector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestAssetStore {
+    private static final int THREADS = 8;
+    private static final int REFS = 10000;
+
+    /**
+     * Test that the use count stays exact when references are created and closed from many threads.
+     * @throws InterruptedException if the test got interrupted.
+     */
+    @Test
+    public void concurrentRefs() throws InterruptedException {
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test> store = new AssetStore<>("basic", null);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; ++i) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < REFS; ++j) {
+                    store.new Ref().close();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, store.getUses());
+    }
+
+    /**
+     * Test that closing a reference twice only releases it once.
+     */
+    @Test
+    public void doubleClose() {
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test> store = new AssetStore<>("basic", null);
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref = store.new Ref();
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref1 = ref.newRef();
+        Assert.assertEquals(2, store.getUses());
+        ref.close();
+        ref.close();
+        Assert.assertEquals(1, store.getUses());
+        ref1.close();
+        Assert.assertEquals(0, store.getUses());
+    }
+
+    /**
+     * Test that the leak detector records the acquisition site of open references.
+     */
+    @Test
+    public void leakDetector() {
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test> store = new AssetStore<>("basic", null);
+        LeakDetector.setEnabled(true);
+        try {
+            AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref = store.new Ref();
+            List<Throwable> sites = store.getOpenRefSites();
+            Assert.assertEquals(1, sites.size());
+            Assert.assertEquals("leakDetector", sites.get(0).getStackTrace()[0].getMethodName());
+            ref.close();
+            Assert.assertTrue(store.getOpenRefSites().isEmpty());
+        } finally {
+            LeakDetector.setEnabled(false);
+        }
+    }
+}
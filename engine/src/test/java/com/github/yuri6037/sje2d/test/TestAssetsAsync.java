@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.config.TypeRegistry;
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.manager.SchedulerType;
+import com.github.yuri6037.sje2d.test.asset.TestAsyncLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+public final class TestAssetsAsync extends TestAssetsBase {
+    private static final int LAYOUTS = 500;
+    private static final long CPU_BUDGET_NANOS = 1000000000L;
+
+    /**
+     * Creates a new UT module for asynchronous loaders.
+     * @throws Exception if the setup function failed.
+     */
+    public TestAssetsAsync() throws Exception {
+        super();
+    }
+
+    @Override
+    protected TypeRegistry.Builder getRegistryBuilder() {
+        return super.getRegistryBuilder()
+                .addFactory(new TestAsyncLoader.Factory());
+    }
+
+    @Override
+    protected SchedulerType getSchedulerType() {
+        return SchedulerType.Event;
+    }
+
+    @Override
+    protected void setup() {
+    }
+
+    private static Map<Long, Long> loaderCpuTimes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Map<Long, Long> times = new HashMap<>();
+        for (ThreadInfo info : bean.getThreadInfo(bean.getAllThreadIds())) {
+            if (info != null && info.getThreadName().startsWith("Asset")) {
+                times.put(info.getThreadId(), bean.getThreadCpuTime(info.getThreadId()));
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Test that a chain of asynchronous loaders waiting on a slow asset holds no thread and consumes no CPU while
+     * waiting. Each layout waits for a slow base asset and for the previous layout, they are queued in reverse order
+     * of dependency so that all of them wait at the same time.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void interdependentLayouts() throws Exception {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Map<Long, Long> before = loaderCpuTimes();
+        int threads = bean.getThreadCount();
+        bean.resetPeakThreadCount();
+        for (int i = LAYOUTS - 1; i >= 0; --i) {
+            String deps = i == 0 ? "basic" : "basic,Test/layout" + (i - 1);
+            proxy.queue(new AssetURL("test/async", "test", "layout?vpath=layout" + i + "&deps=" + deps));
+        }
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic&sleep=1000&uthrow=false"));
+        manager.waitAll();
+        long cpu = 0;
+        for (Map.Entry<Long, Long> entry : loaderCpuTimes().entrySet()) {
+            cpu += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+        }
+        Assert.assertEquals(LAYOUTS + 1, proxy.getAssetsCount());
+        //Waiting loaders must not hold a thread each, only the bounded loader pool and the scheduler may start.
+        Assert.assertTrue(bean.getPeakThreadCount() - threads < LAYOUTS / 10);
+        //The loaders wait 1 second for the base asset, spinning loaders would cost at least that much CPU each.
+        Assert.assertTrue("Loaders used " + cpu / 1000000 + " ms of CPU", cpu < CPU_BUDGET_NANOS);
+    }
+}
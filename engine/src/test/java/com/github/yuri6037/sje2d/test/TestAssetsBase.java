@@ -33,6 +33,7 @@
 import com.github.yuri6037.sje2d.asset.config.TypeRegistry;
 import com.github.yuri6037.sje2d.asset.engine.manager.AssetManager;
 import com.github.yuri6037.sje2d.asset.engine.manager.AssetManagerProxy;
+import com.github.yuri6037.sje2d.asset.engine.manager.SchedulerType;
 import com.github.yuri6037.sje2d.test.asset.TestLoader;
 import com.github.yuri6037.sje2d.test.asset.TestProtocol;
 
@@ -55,7 +56,7 @@ public abstract class TestAssetsBase {
      */
     public TestAssetsBase() throws Exception {
         TypeRegistry registry = getRegistryBuilder().build();
-        manager = new AssetManager(registry);
+        manager = new AssetManager(registry, getSchedulerType());
         proxy = manager.newProxy();
         setup();
     }
@@ -70,6 +71,14 @@ public abstract class TestAssetsBase {
                 .addProtocol(new TestProtocol("test/test"));
     }
 
+    /**
+     * Returns the scheduler to use in the UT assets manager. Override this method to test a different scheduler.
+     * @return the scheduler type.
+     */
+    protected SchedulerType getSchedulerType() {
+        return SchedulerType.Polling;
+    }
+
     /**
      * Function called when initializing the UT module. Add initial assets to load in here.
      * @throws Exception if the initialization of the UT module failed.
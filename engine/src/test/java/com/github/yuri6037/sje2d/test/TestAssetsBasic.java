@@ -31,6 +31,7 @@
 package com.github.yuri6037.sje2d.test;
 
 import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
+import com.github.yuri6037.sje2d.asset.engine.manager.Ticket;
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
 import com.github.yuri6037.sje2d.test.asset.Text;
 import org.junit.Assert;
@@ -67,8 +68,12 @@ public final class TestAssetsBasic extends TestAssetsBase {
     public void unload() {
         Assert.assertFalse(proxy.isInUse("basic"));
         Assert.assertEquals(1, proxy.getAssetsCount());
-        Assert.assertEquals(1, proxy.unload("basic"));
+        Ticket ticket = proxy.unload("basic");
+        Assert.assertEquals(1, proxy.getOperationCount());
+        Assert.assertFalse(ticket.isDone());
         Assert.assertThrows(RuntimeException.class, manager::waitAll);
+        Assert.assertTrue(ticket.isDone());
+        Assert.assertEquals(0, proxy.getOperationCount());
         Assert.assertEquals(0, proxy.getAssetsCount());
         Assert.assertNull(proxy.get(com.github.yuri6037.sje2d.test.asset.Test.class, "basic"));
     }
@@ -85,8 +90,11 @@ public final class TestAssetsBasic extends TestAssetsBase {
                 = proxy.get(com.github.yuri6037.sje2d.test.asset.Test.class, "basic");
         Assert.assertEquals("this is a test", ref.get().getPath());
         Assert.assertTrue(proxy.isInUse("basic"));
-        Assert.assertEquals(1, proxy.unload("basic"));
+        Ticket ticket = proxy.unload("basic");
+        Assert.assertEquals(1, proxy.getOperationCount());
+        Assert.assertFalse(ticket.isDone());
         manager.waitAll();
+        Assert.assertTrue(ticket.isDone());
         Assert.assertEquals(0, proxy.getOperationCount());
         Assert.assertEquals(1, proxy.getAssetsCount());
         Assert.assertNotNull(proxy.get(com.github.yuri6037.sje2d.test.asset.Test.class, "basic"));
@@ -31,10 +31,22 @@
 package com.github.yuri6037.sje2d.test;
 
 import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.manager.AssetManager;
+import com.github.yuri6037.sje2d.asset.engine.manager.AssetManagerProxy;
+import com.github.yuri6037.sje2d.asset.engine.manager.LoadHandle;
+import com.github.yuri6037.sje2d.asset.engine.manager.LoaderPool;
+import com.github.yuri6037.sje2d.asset.engine.manager.Priority;
+import com.github.yuri6037.sje2d.asset.engine.manager.SchedulerType;
+import com.github.yuri6037.sje2d.test.asset.TestLoader;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.concurrent.Semaphore;
+
 public final class TestAssetsDep extends TestAssetsBase {
+    private static final int PREFETCHES = 20;
+    private static final long PRIORITY_TIMEOUT_MILLIS = 5000;
+
     /**
      * Creates a new UT module for the asset system.
      * @throws Exception if the setup function failed.
@@ -170,4 +182,70 @@ public final class TestAssetsDep extends TestAssetsBase {
         manager.waitAll();
         Assert.assertEquals(0, proxy.getAssetsCount());
     }
+
+    /**
+     * Test that an immediate asset is loaded before prefetched assets which were queued earlier. The prefetched
+     * assets block on the TestLoader gate and the manager runs a single loader thread, so only the prefetched asset
+     * already picked up by that thread may load before the immediate asset. The event driven scheduler is used as it
+     * pushes tasks to the loader queue from update, the immediate asset is thus queued before the gate opens.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test(timeout = PRIORITY_TIMEOUT_MILLIS)
+    public void priority() throws Exception {
+        Semaphore gate = TestLoader.getGate();
+        gate.drainPermits();
+        AssetManager manager1 = new AssetManager(getRegistryBuilder().build(), SchedulerType.Event,
+                new LoaderPool(1, false));
+        AssetManagerProxy proxy1 = manager1.newProxy();
+        try {
+            for (int i = 0; i != PREFETCHES; ++i) {
+                proxy1.queue(new AssetURL("test/test", "test", "this is a test?name=basic" + i + "&gate=true"),
+                        Priority.Prefetch);
+            }
+            manager1.update(Long.MAX_VALUE);
+            while (gate.getQueueLength() == 0) {
+                //noinspection BusyWait
+                Thread.sleep(1);
+            }
+            proxy1.queue(new AssetURL("test/test", "test", "this is a test?name=basic"), Priority.Immediate);
+            manager1.update(Long.MAX_VALUE);
+            gate.release();
+            while (proxy1.get(com.github.yuri6037.sje2d.test.asset.Test.class, "basic") == null) {
+                manager1.update();
+                //noinspection BusyWait
+                Thread.sleep(1);
+            }
+            for (int i = 1; i != PREFETCHES; ++i) {
+                Assert.assertNull(proxy1.get(com.github.yuri6037.sje2d.test.asset.Test.class, "basic" + i));
+            }
+            gate.release(PREFETCHES - 1);
+            manager1.waitAll();
+            Assert.assertEquals(PREFETCHES + 1, proxy1.getAssetsCount());
+        } finally {
+            gate.release(PREFETCHES);
+            manager1.shutdown();
+        }
+    }
+
+    /**
+     * Test that cancelled assets are never mounted and do not keep their dependencies locked.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void cancel() throws Exception {
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic&uthrow=false"));
+        manager.waitAll();
+        LoadHandle handle = proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic1&dep=basic"));
+        handle.cancel();
+        LoadHandle handle1 = proxy.queue(new AssetURL("test/test", "test",
+                "this is a test?name=basic2&dep=nonexistent"));
+        manager.update();
+        handle1.cancel();
+        manager.waitAll();
+        Assert.assertTrue(handle.isCancelled());
+        Assert.assertEquals(1, proxy.getAssetsCount());
+        proxy.unload("basic");
+        manager.waitAll();
+        Assert.assertEquals(0, proxy.getAssetsCount());
+    }
 }
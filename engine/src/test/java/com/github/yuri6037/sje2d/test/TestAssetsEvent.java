@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.manager.AssetLoadException;
+import com.github.yuri6037.sje2d.asset.engine.manager.Constants;
+import com.github.yuri6037.sje2d.asset.engine.manager.LoadHandle;
+import com.github.yuri6037.sje2d.asset.engine.manager.Priority;
+import com.github.yuri6037.sje2d.asset.engine.manager.SchedulerType;
+import com.github.yuri6037.sje2d.asset.engine.manager.Ticket;
+import com.github.yuri6037.sje2d.asset.engine.manager.UpdateStats;
+import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
+import com.github.yuri6037.sje2d.test.asset.TestLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class TestAssetsEvent extends TestAssetsBase {
+    private static final int WAVES = 100;
+    private static final long WAVES_TIMEOUT_MILLIS = 5000;
+    private static final long CANCEL_TIMEOUT_MILLIS = Constants.DEPENDENCY_TIMEOUT_MILLIS / 2;
+
+    /**
+     * Creates a new UT module for the event driven asset scheduler.
+     * @throws Exception if the setup function failed.
+     */
+    public TestAssetsEvent() throws Exception {
+        super();
+    }
+
+    @Override
+    protected SchedulerType getSchedulerType() {
+        return SchedulerType.Event;
+    }
+
+    @Override
+    protected void setup() {
+    }
+
+    /**
+     * Test if asset dependencies are correctly solved when assets are added in order of dependency
+     * (ie. from the largest deps to the fewest deps).
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void unordered() throws Exception {
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic1&dep=basic"));
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic"));
+        manager.waitAll();
+        Assert.assertEquals(2, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test if a chain of dependencies is correctly solved when queued from the last dependent to the root.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void unorderedChain() throws Exception {
+        for (int i = 5; i != 0; --i) {
+            proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic" + i + "&dep=basic" + (i - 1)));
+        }
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic0"));
+        manager.waitAll();
+        Assert.assertEquals(6, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test if asset dependencies are correctly solved when 100 (99 dependents + 1 dependency) assets are added in
+     * order of dependency (ie. from the largest deps to the fewest deps).
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void unorderedOverload() throws Exception {
+        for (int i = 1; i != 100; ++i) {
+            proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic" + i + "&dep=basic"));
+        }
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic"));
+        manager.waitAll();
+        Assert.assertEquals(100, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test that an asset which depends on an asset that is never queued is eventually dropped.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void missingDependency() throws Exception {
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic1&dep=nonexistent"));
+        manager.waitAll();
+        Assert.assertEquals(0, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test that a single update processes as many operations as the time budget allows.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void batchUpdate() throws Exception {
+        for (int i = 0; i != 50; ++i) {
+            proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic" + i));
+        }
+        UpdateStats stats = manager.update(0);
+        Assert.assertEquals(1, stats.executed());
+        Assert.assertTrue(stats.deferred() >= 49);
+        stats = manager.update(Long.MAX_VALUE);
+        Assert.assertEquals(49, stats.executed());
+        Assert.assertEquals(0, proxy.getOperationCount());
+        manager.waitAll();
+        Assert.assertEquals(50, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test that cancelling an asset suspended on a missing dependency drops it without waiting for the timeout.
+     * The test times out well before the dependency timeout would let the solver give up on its own.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test(timeout = CANCEL_TIMEOUT_MILLIS)
+    public void cancelWaiting() throws Exception {
+        Semaphore attempts = TestLoader.getAttempts();
+        attempts.drainPermits();
+        LoadHandle handle = proxy.queue(new AssetURL("test/test", "test",
+                "this is a test?name=basic1&dep=nonexistent"));
+        manager.update();
+        attempts.acquire();
+        handle.cancel();
+        manager.waitAll();
+        Assert.assertEquals(0, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test that queueing never blocks and that backpressure is reported by tryQueue instead.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void backpressure() throws Exception {
+        for (int i = 0; i != Constants.COMMAND_QUEUE_SOFT_LIMIT * 2; ++i) {
+            proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic" + i));
+        }
+        Assert.assertEquals(Constants.COMMAND_QUEUE_SOFT_LIMIT * 2, proxy.getOperationCount());
+        Assert.assertNull(proxy.tryQueue(new AssetURL("test/test", "test", "this is a test?name=basic"),
+                Priority.Immediate));
+        manager.waitAll();
+        Assert.assertNotNull(proxy.tryQueue(new AssetURL("test/test", "test", "this is a test?name=basic"),
+                Priority.Immediate));
+        manager.waitAll();
+        Assert.assertEquals(Constants.COMMAND_QUEUE_SOFT_LIMIT * 2 + 1, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test that asset futures complete on mount, including dependents chained on the completion of a dependency.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void future() throws Exception {
+        AssetURL url = new AssetURL("test/test", "test", "this is a test?name=basic1&dep=basic&uthrow=false");
+        CompletableFuture<AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref> dep
+                = proxy.queueAsync(com.github.yuri6037.sje2d.test.asset.Test.class,
+                new AssetURL("test/test", "test", "this is a test?name=basic&uthrow=false"));
+        CompletableFuture<AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref> chained
+                = dep.thenCompose((ref) -> {
+                    ref.close();
+                    return proxy.queueAsync(com.github.yuri6037.sje2d.test.asset.Test.class, url);
+                });
+        Assert.assertFalse(chained.isDone());
+        manager.waitAll();
+        Assert.assertTrue(chained.isDone());
+        AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref ref = chained.get();
+        Assert.assertEquals("this is a test", ref.get().getPath());
+        Assert.assertTrue(proxy.isInUse("basic1"));
+        ref.close();
+        Assert.assertEquals(2, proxy.getAssetsCount());
+    }
+
+    /**
+     * Test that asset futures complete exceptionally when the asset fails to load.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void futureFailure() throws Exception {
+        CompletableFuture<AssetStore<com.github.yuri6037.sje2d.test.asset.Test>.Ref> future
+                = proxy.queueAsync(com.github.yuri6037.sje2d.test.asset.Test.class,
+                new AssetURL("test/unknown", "test", "this is a test?name=basic"));
+        manager.waitAll();
+        ExecutionException e = Assert.assertThrows(ExecutionException.class, future::get);
+        Assert.assertTrue(e.getCause() instanceof AssetLoadException);
+    }
+
+    /**
+     * Test that waiting for assets is woken up by each dependency wave and returns once the last asset is mounted.
+     * Sleeping 100 ms between waves would take 10 seconds for this chain, twice the timeout of this test.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test(timeout = WAVES_TIMEOUT_MILLIS)
+    public void waitLatency() throws Exception {
+        for (int i = 1; i != WAVES; ++i) {
+            proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic" + i + "&dep=basic" + (i - 1)));
+        }
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic0"));
+        manager.waitAll();
+        Assert.assertEquals(WAVES, proxy.getAssetsCount());
+        Assert.assertEquals(0, proxy.getOperationCount());
+    }
+
+    /**
+     * Test that operations queued concurrently from many threads are all accounted for and that a thread can wait
+     * for the exact operation it submitted.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void concurrentTickets() throws Exception {
+        ConcurrentLinkedQueue<Ticket> tickets = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i != 8; ++i) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j != 100; ++j) {
+                    tickets.add(proxy.unload("nonexistent" + j));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(800, proxy.getOperationCount());
+        HashSet<Long> ids = new HashSet<>();
+        for (Ticket ticket : tickets) {
+            ids.add(ticket.getId());
+        }
+        Assert.assertEquals(800, ids.size());
+        Ticket ticket = tickets.peek();
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread waiter = new Thread(() -> {
+            try {
+                done.set(ticket.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        manager.waitAll();
+        waiter.join();
+        Assert.assertTrue(done.get());
+        Assert.assertEquals(0, proxy.getOperationCount());
+        Assert.assertTrue(tickets.stream().allMatch(Ticket::isDone));
+    }
+
+    /**
+     * Test that a thread can wait for the exact queue operation it submitted through the ticket of its load handle.
+     * @throws Exception if some assets manager operation failed.
+     */
+    @Test
+    public void queueTicket() throws Exception {
+        LoadHandle first = proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic"));
+        LoadHandle second = proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic1"));
+        Assert.assertTrue(first.getTicket().getId() < second.getTicket().getId());
+        Assert.assertFalse(first.getTicket().isDone());
+        manager.update(0);
+        Assert.assertTrue(first.getTicket().isDone());
+        Assert.assertFalse(second.getTicket().isDone());
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread waiter = new Thread(() -> {
+            try {
+                done.set(second.getTicket().await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        manager.waitAll();
+        waiter.join();
+        Assert.assertTrue(done.get());
+        Assert.assertEquals(2, proxy.getAssetsCount());
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.cache.DecodedCache;
+import com.github.yuri6037.sje2d.asset.engine.system.IAssetLoader;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.AssetInputStream;
+import com.github.yuri6037.sje2d.asset.factory.animation.AnimationGIFLoader;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+public class TestDecodedCache {
+    private static final int SIZE = 64 * 64 * 4;
+
+    private Path directory;
+
+    /**
+     * Creates the temporary cache directory.
+     * @throws IOException if the directory could not be created.
+     */
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("sje2d-cache");
+    }
+
+    private long countEntries() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter((path) -> path.toString().endsWith(".bin")).count();
+        }
+    }
+
+    private static IAssetLoader.Result loadGif(final AssetURL url, final byte[] gif) throws Exception {
+        AssetInputStream stream = new AssetInputStream(new ByteArrayInputStream(gif)) {
+            @Override
+            public String getMimeType() {
+                return null;
+            }
+        };
+        return new AnimationGIFLoader(url, stream).load(null);
+    }
+
+    /**
+     * Deletes the temporary cache directory.
+     * @throws IOException if the directory could not be deleted.
+     */
+    @After
+    public void cleanup() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Test that a stored entry is read back with the same metadata and data.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void roundTrip() throws Exception {
+        DecodedCache cache = new DecodedCache(directory);
+        String key = DecodedCache.key(new AssetURL("texture/png file://a.png"), "loader", 1, new byte[]{1, 2, 3});
+        Assert.assertNull(cache.get(key));
+        ByteBuffer data = ByteBuffer.allocateDirect(SIZE);
+        for (int i = 0; i != SIZE; ++i) {
+            data.put(i, (byte) i);
+        }
+        cache.put(key, new int[]{64, 64}, data);
+        DecodedCache.Entry entry = cache.get(key);
+        Assert.assertNotNull(entry);
+        Assert.assertArrayEquals(new int[]{64, 64}, entry.metadata());
+        Assert.assertTrue(entry.data().isDirect());
+        Assert.assertEquals(data, entry.data());
+    }
+
+    /**
+     * Test that the key changes with the source data and the loader version.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void keys() throws Exception {
+        AssetURL url = new AssetURL("texture/png file://a.png");
+        String key = DecodedCache.key(url, "loader", 1, new byte[]{1, 2, 3});
+        Assert.assertEquals(key, DecodedCache.key(url, "loader", 1, new byte[]{1, 2, 3}));
+        Assert.assertNotEquals(key, DecodedCache.key(url, "loader", 1, new byte[]{1, 2, 4}));
+        Assert.assertNotEquals(key, DecodedCache.key(url, "loader", 2, new byte[]{1, 2, 3}));
+        Assert.assertNotEquals(key, DecodedCache.key(new AssetURL("texture/png file://b.png"), "loader", 1,
+                new byte[]{1, 2, 3}));
+    }
+
+    /**
+     * Test that a corrupted entry is treated as a miss and removed.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void corrupted() throws Exception {
+        DecodedCache cache = new DecodedCache(directory);
+        String key = DecodedCache.key(new AssetURL("texture/png file://a.png"), "loader", 1, new byte[0]);
+        cache.put(key, new int[]{1}, ByteBuffer.allocateDirect(SIZE));
+        Path file;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            file = paths.filter(Files::isRegularFile).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        Assert.assertNull(cache.get(key));
+        Assert.assertFalse(Files.exists(file));
+        Assert.assertFalse(new DecodedCache(null).isEnabled());
+    }
+
+    private Path getFile(final String key) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter((path) -> path.getFileName().toString().startsWith(key)).findFirst().orElseThrow();
+        }
+    }
+
+    /**
+     * Test that the least recently used entries are evicted once the cache grows over its size limit.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void eviction() throws Exception {
+        DecodedCache cache = new DecodedCache(directory, 3 * SIZE + 1024);
+        AssetURL url = new AssetURL("texture/png file://a.png");
+        String[] keys = new String[4];
+        for (int i = 0; i != 3; ++i) {
+            keys[i] = DecodedCache.key(url, "loader", 1, new byte[]{(byte) i});
+            cache.put(keys[i], new int[0], ByteBuffer.allocateDirect(SIZE));
+            //Entries are ordered by last use using file modification times.
+            Files.setLastModifiedTime(getFile(keys[i]), FileTime.fromMillis(System.currentTimeMillis()
+                    - (3 - i) * 10000L));
+        }
+        Assert.assertNotNull(cache.get(keys[0]));
+        keys[3] = DecodedCache.key(url, "loader", 1, new byte[]{3});
+        cache.put(keys[3], new int[0], ByteBuffer.allocateDirect(SIZE));
+        Assert.assertNotNull(cache.get(keys[0]));
+        Assert.assertNull(cache.get(keys[1]));
+        Assert.assertNull(cache.get(keys[2]));
+        Assert.assertNotNull(cache.get(keys[3]));
+    }
+
+    /**
+     * Test that the default cache is disabled unless enabled by a system property.
+     */
+    @Test
+    public void disabledByDefault() {
+        Assert.assertNull(System.getProperty("com.github.yuri6037.sje2d.cache"));
+        Assert.assertFalse(DecodedCache.getDefault().isEnabled());
+    }
+
+    /**
+     * Test that a loader decodes its source directly when the cache is disabled, and stores then reuses the decoded
+     * asset when it is enabled.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void loader() throws Exception {
+        ByteArrayOutputStream gif = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB), "gif", gif);
+        AssetURL url = new AssetURL("image/gif", "test", "animation");
+        DecodedCache previous = DecodedCache.getDefault();
+        try {
+            DecodedCache.setDefault(new DecodedCache(null));
+            Assert.assertTrue(loadGif(url, gif.toByteArray()).isReady());
+            Assert.assertEquals(0, countEntries());
+            DecodedCache.setDefault(new DecodedCache(directory));
+            Assert.assertTrue(loadGif(url, gif.toByteArray()).isReady());
+            Assert.assertEquals(1, countEntries());
+            Assert.assertTrue(loadGif(url, gif.toByteArray()).isReady());
+            Assert.assertEquals(1, countEntries());
+        } finally {
+            DecodedCache.setDefault(previous);
+        }
+    }
+}
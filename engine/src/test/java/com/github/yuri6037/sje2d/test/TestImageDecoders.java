@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.factory.image.DecodedImage;
+import com.github.yuri6037.sje2d.asset.factory.image.PngDecoder;
+import com.github.yuri6037.sje2d.asset.factory.image.QoiDecoder;
+import com.github.yuri6037.sje2d.util.ImageUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class TestImageDecoders {
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+
+    private static BufferedImage makeImage(final BufferedImage image) {
+        Random random = new Random(image.getType());
+        WritableRaster raster = image.getRaster();
+        int max = (1 << image.getSampleModel().getSampleSize(0)) - 1;
+        for (int y = 0; y != HEIGHT; ++y) {
+            for (int x = 0; x != WIDTH; ++x) {
+                for (int b = 0; b != raster.getNumBands(); ++b) {
+                    //Alternate smooth and noisy rows so that the encoder picks different filter types.
+                    int value = y % 2 == 0 ? (x * 7 + y * 3 + b * 50) : random.nextInt();
+                    raster.setSample(x, y, b, value & max);
+                }
+            }
+        }
+        return image;
+    }
+
+    private static ByteBuffer encode(final BufferedImage image, final boolean interlaced) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setProgressiveMode(interlaced ? ImageWriteParam.MODE_DEFAULT : ImageWriteParam.MODE_DISABLED);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static void checkPng(final BufferedImage image) throws IOException {
+        DecodedImage decoded = new PngDecoder().decode(encode(image, false));
+        Assert.assertEquals(WIDTH, decoded.width());
+        Assert.assertEquals(HEIGHT, decoded.height());
+        Assert.assertTrue(decoded.data().isDirect());
+        Assert.assertEquals(ImageUtils.imageToBuffer(image), decoded.data());
+    }
+
+    /**
+     * Test that the PNG decoder gives the same texels as ImageIO on 8 bits RGB(A) and palette images.
+     * @throws IOException if an image could not be encoded or decoded.
+     */
+    @Test
+    public void pngColor() throws IOException {
+        checkPng(makeImage(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_4BYTE_ABGR)));
+        checkPng(makeImage(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR)));
+        byte[] ramp = new byte[16];
+        for (int i = 0; i != ramp.length; ++i) {
+            ramp[i] = (byte) (i * 17);
+        }
+        IndexColorModel palette = new IndexColorModel(4, 16, ramp, ramp, ramp, ramp);
+        checkPng(makeImage(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_BINARY, palette)));
+        checkPng(makeImage(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_BINARY)));
+    }
+
+    /**
+     * Test that the PNG decoder expands 8 and 16 bits gray images.
+     * @throws IOException if an image could not be encoded or decoded.
+     */
+    @Test
+    public void pngGray() throws IOException {
+        for (int type : new int[]{BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY}) {
+            BufferedImage image = makeImage(new BufferedImage(WIDTH, HEIGHT, type));
+            ByteBuffer data = new PngDecoder().decode(encode(image, false)).data();
+            int shift = type == BufferedImage.TYPE_USHORT_GRAY ? 8 : 0;
+            for (int y = 0; y != HEIGHT; ++y) {
+                for (int x = 0; x != WIDTH; ++x) {
+                    int offset = (y * WIDTH + x) * 4;
+                    byte gray = (byte) (image.getRaster().getSample(x, y, 0) >>> shift);
+                    Assert.assertEquals(gray, data.get(offset));
+                    Assert.assertEquals(gray, data.get(offset + 2));
+                    Assert.assertEquals((byte) 0xFF, data.get(offset + 3));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that interlaced images are left to ImageIO and that corrupted images are rejected.
+     * @throws IOException if an image could not be encoded.
+     */
+    @Test
+    public void pngUnsupported() throws IOException {
+        BufferedImage image = makeImage(new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_4BYTE_ABGR));
+        Assert.assertNull(new PngDecoder().decode(encode(image, true)));
+        ByteBuffer corrupted = encode(image, false);
+        corrupted.put(corrupted.limit() / 2, (byte) (corrupted.get(corrupted.limit() / 2) ^ 1));
+        Assert.assertThrows(IOException.class, () -> new PngDecoder().decode(corrupted));
+        ByteBuffer truncated = encode(image, false);
+        Assert.assertThrows(IOException.class, () -> new PngDecoder().decode(truncated.limit(truncated.limit() / 2)));
+    }
+
+    /**
+     * Test the QOI decoder on a stream using every operation.
+     * @throws IOException if the image could not be decoded.
+     */
+    @Test
+    public void qoi() throws IOException {
+        ByteBuffer source = ByteBuffer.allocate(64);
+        source.put("qoif".getBytes()).putInt(8).putInt(1).put((byte) 4).put((byte) 0);
+        source.put(new byte[]{
+            (byte) 0xFE, 10, 20, 30, //RGB
+            (byte) 0xFF, 1, 2, 3, 4, //RGBA
+            0x09, //INDEX of the first pixel
+            0x72, //DIFF +1 -2 +0
+            (byte) 0xAA, 0x5C, //LUMA green +10, red -3, blue +4 relative to green
+            (byte) 0xC2, //RUN of 3
+            0, 0, 0, 0, 0, 0, 0, 1
+        });
+        source.flip();
+        DecodedImage image = new QoiDecoder().decode(source);
+        Assert.assertEquals(8, image.width());
+        Assert.assertEquals(1, image.height());
+        byte[] expected = {
+            10, 20, 30, -1,
+            1, 2, 3, 4,
+            10, 20, 30, -1,
+            11, 18, 30, -1,
+            18, 28, 44, -1,
+            18, 28, 44, -1,
+            18, 28, 44, -1,
+            18, 28, 44, -1
+        };
+        Assert.assertEquals(ByteBuffer.wrap(expected), image.data());
+        Assert.assertThrows(IOException.class, () -> new QoiDecoder().decode(source.limit(20)));
+    }
+}
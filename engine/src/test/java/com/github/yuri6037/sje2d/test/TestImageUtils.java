@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.util.ImageUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class TestImageUtils {
+    private static final int WIDTH = 37;
+    private static final int HEIGHT = 23;
+
+    private static BufferedImage makeImage(final int type) {
+        return makeImage(type, WIDTH, HEIGHT);
+    }
+
+    private static BufferedImage makeImage(final int type, final int width, final int height) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(type);
+        for (int y = 0; y != height; ++y) {
+            for (int x = 0; x != width; ++x) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static void check(final BufferedImage image) {
+        ByteBuffer buffer = ImageUtils.imageToBuffer(image);
+        Assert.assertEquals(0, buffer.position());
+        Assert.assertEquals(image.getWidth() * image.getHeight() * 4, buffer.limit());
+        for (int y = 0; y != image.getHeight(); ++y) {
+            for (int x = 0; x != image.getWidth(); ++x) {
+                int argb = image.getRGB(x, y);
+                int offset = (y * image.getWidth() + x) * 4;
+                Assert.assertEquals((byte) (argb >> 16), buffer.get(offset));
+                Assert.assertEquals((byte) (argb >> 8), buffer.get(offset + 1));
+                Assert.assertEquals((byte) argb, buffer.get(offset + 2));
+                Assert.assertEquals((byte) (argb >> 24), buffer.get(offset + 3));
+            }
+        }
+    }
+
+    /**
+     * Test that the raster fast paths produce the same texels as BufferedImage.getRGB.
+     */
+    @Test
+    public void fastPaths() {
+        check(makeImage(BufferedImage.TYPE_INT_ARGB));
+        check(makeImage(BufferedImage.TYPE_INT_RGB));
+        check(makeImage(BufferedImage.TYPE_3BYTE_BGR));
+        check(makeImage(BufferedImage.TYPE_4BYTE_ABGR));
+    }
+
+    /**
+     * Test that other image types and sub-images go through the generic path.
+     */
+    @Test
+    public void generic() {
+        check(makeImage(BufferedImage.TYPE_BYTE_GRAY));
+        check(makeImage(BufferedImage.TYPE_INT_ARGB_PRE));
+        check(makeImage(BufferedImage.TYPE_INT_ARGB).getSubimage(3, 5, 20, 10));
+        check(makeImage(BufferedImage.TYPE_4BYTE_ABGR).getSubimage(1, 2, 30, 15));
+    }
+
+    /**
+     * Test that images above the parallel threshold are converted correctly in bands of rows.
+     */
+    @Test
+    public void parallel() {
+        int height = ImageUtils.PARALLEL_THRESHOLD / 1000 + 1;
+        check(makeImage(BufferedImage.TYPE_INT_ARGB, 1000, height));
+        check(makeImage(BufferedImage.TYPE_BYTE_GRAY, 1000, height));
+    }
+
+    /**
+     * Test that decoding from a ByteBuffer gives the same image as ImageIO.read.
+     * @throws IOException if the image could not be encoded or decoded.
+     */
+    @Test
+    public void read() throws IOException {
+        BufferedImage image = makeImage(BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        ByteBuffer source = ByteBuffer.allocateDirect(out.size() + 3).position(3);
+        source.put(out.toByteArray()).position(3);
+        BufferedImage decoded = ImageUtils.read(source);
+        Assert.assertEquals(3, source.position());
+        Assert.assertEquals(ImageUtils.imageToBuffer(image), ImageUtils.imageToBuffer(decoded));
+        Assert.assertThrows(IOException.class, () -> ImageUtils.read(ByteBuffer.wrap(new byte[]{1, 2, 3})));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.config.TypeRegistry;
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.manager.AssetManager;
+import com.github.yuri6037.sje2d.asset.engine.manager.AssetManagerProxy;
+import com.github.yuri6037.sje2d.asset.engine.manager.LoaderPool;
+import com.github.yuri6037.sje2d.asset.engine.manager.SchedulerType;
+import com.github.yuri6037.sje2d.test.asset.TestLoader;
+import com.github.yuri6037.sje2d.test.asset.TestProtocol;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestLoaderPool {
+    private static final int VIRTUAL_THREADS_VERSION = 21;
+
+    /**
+     * Test that the shared pool is reused until it is shut down.
+     */
+    @Test
+    public void shared() {
+        LoaderPool pool = LoaderPool.getShared();
+        Assert.assertSame(pool, LoaderPool.getShared());
+        pool.shutdown();
+        Assert.assertTrue(pool.isShutdown());
+        LoaderPool pool1 = LoaderPool.getShared();
+        Assert.assertNotSame(pool, pool1);
+        Assert.assertFalse(pool1.isShutdown());
+    }
+
+    /**
+     * Test that shutting down a manager leaves the shared pool running for other managers.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void sharedShutdown() throws Exception {
+        TypeRegistry registry = new TypeRegistry.Builder()
+                .addFactory(new TestLoader.Factory())
+                .addProtocol(new TestProtocol("test/test"))
+                .build();
+        LoaderPool pool = LoaderPool.getShared();
+        Assert.assertTrue(pool.isShared());
+        new AssetManager(registry).shutdown();
+        Assert.assertFalse(pool.isShutdown());
+        AssetManager manager = new AssetManager(registry);
+        AssetManagerProxy proxy = manager.newProxy();
+        proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic"));
+        manager.waitAll();
+        Assert.assertEquals(1, proxy.getAssetsCount());
+        LoaderPool.shutdownShared();
+        Assert.assertTrue(pool.isShutdown());
+        Assert.assertFalse(pool.isShared());
+    }
+
+    /**
+     * Test that virtual mode falls back to platform threads on JVMs without virtual threads.
+     */
+    @Test
+    public void virtual() {
+        LoaderPool pool = new LoaderPool(2, true);
+        Assert.assertEquals(Runtime.version().feature() >= VIRTUAL_THREADS_VERSION, pool.isVirtual());
+        pool.shutdown();
+    }
+
+    /**
+     * Test that a chain of dependent assets loads on a single loader thread and that the manager shuts its pool down.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void singleThread() throws Exception {
+        TypeRegistry registry = new TypeRegistry.Builder()
+                .addFactory(new TestLoader.Factory())
+                .addProtocol(new TestProtocol("test/test"))
+                .build();
+        for (SchedulerType type : SchedulerType.values()) {
+            LoaderPool pool = new LoaderPool(1, false);
+            AssetManager manager = new AssetManager(registry, type, pool);
+            AssetManagerProxy proxy = manager.newProxy();
+            for (int i = 1; i != 10; ++i) {
+                proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic" + i + "&dep=basic"
+                        + (i - 1)));
+            }
+            proxy.queue(new AssetURL("test/test", "test", "this is a test?name=basic0"));
+            manager.waitAll();
+            Assert.assertEquals(10, proxy.getAssetsCount());
+            manager.shutdown();
+            Assert.assertTrue(pool.isShutdown());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.ISeekableAssetStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.SeekableFileStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.StreamUtils;
+import com.github.yuri6037.sje2d.asset.protocol.BasicAssetStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+public class TestStreams {
+    private static final int SIZE = 100000;
+    private static final int HEAD = 10;
+
+    private static byte[] makeData() {
+        byte[] data = new byte[SIZE];
+        for (int i = 0; i != SIZE; ++i) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    /**
+     * Test that a file stream maps its remaining content after some bytes were read.
+     * @throws IOException if the file could not be written or read.
+     */
+    @Test
+    public void fileMap() throws IOException {
+        byte[] data = makeData();
+        Path file = Files.createTempFile("sje2d-stream", null);
+        try {
+            Files.write(file, data);
+            try (IAssetStream stream = new SeekableFileStream(file)) {
+                byte[] head = new byte[HEAD];
+                Assert.assertEquals(HEAD, stream.read(head));
+                ByteBuffer rest = StreamUtils.toByteBuffer(stream);
+                Assert.assertTrue(rest.isDirect());
+                Assert.assertEquals(ByteBuffer.wrap(data, HEAD, SIZE - HEAD), rest);
+                Assert.assertEquals(-1, stream.read());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test that byte, bulk and seek operations on a file stream agree with the file content across buffer refills.
+     * @throws IOException if the file could not be written or read.
+     */
+    @Test
+    public void fileSeek() throws IOException {
+        byte[] data = makeData();
+        Path file = Files.createTempFile("sje2d-stream", null);
+        try {
+            Files.write(file, data);
+            try (ISeekableAssetStream stream = new SeekableFileStream(file)) {
+                for (int i = 0; i != HEAD; ++i) {
+                    Assert.assertEquals(data[i] & 0xFF, stream.read());
+                }
+                stream.seek(SIZE - HEAD);
+                byte[] tail = new byte[HEAD];
+                Assert.assertEquals(HEAD, stream.read(tail));
+                Assert.assertArrayEquals(Arrays.copyOfRange(data, SIZE - HEAD, SIZE), tail);
+                Assert.assertEquals(-1, stream.read());
+                stream.seek(1);
+                Assert.assertEquals(data[1] & 0xFF, stream.read());
+                byte[] all = new byte[SIZE - 2];
+                Assert.assertEquals(SIZE - 2, stream.read(all));
+                Assert.assertArrayEquals(Arrays.copyOfRange(data, 2, SIZE), all);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test the StreamUtils fall backs on streams which are not ByteBuffer capable.
+     * @throws IOException if a read operation failed.
+     */
+    @Test
+    public void fallback() throws IOException {
+        byte[] data = makeData();
+        IAssetStream stream = new BasicAssetStream(new ByteArrayInputStream(data));
+        ByteBuffer head = ByteBuffer.allocateDirect(HEAD);
+        Assert.assertEquals(HEAD, StreamUtils.read(stream, head));
+        Assert.assertEquals(ByteBuffer.wrap(data, 0, HEAD), head.flip());
+        ByteBuffer rest = StreamUtils.toByteBuffer(stream);
+        Assert.assertTrue(rest.isDirect());
+        Assert.assertEquals(ByteBuffer.wrap(data, HEAD, SIZE - HEAD), rest);
+    }
+
+    private static long countTempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter((p) -> p.getFileName().toString().startsWith("asset_stream_data")).count();
+        }
+    }
+
+    /**
+     * Test that small streams are made seekable in memory and large streams through a temporary file which is
+     * deleted on close.
+     * @throws IOException if a read operation failed.
+     */
+    @Test
+    public void seekable() throws IOException {
+        byte[] data = makeData();
+        long tempFiles = countTempFiles();
+        ISeekableAssetStream small = StreamUtils.makeSeekable(new BasicAssetStream(new ByteArrayInputStream(data)));
+        Assert.assertEquals(tempFiles, countTempFiles());
+        small.seek(SIZE - 1);
+        Assert.assertEquals(data[SIZE - 1] & 0xFF, small.read());
+        small.close();
+        byte[] large = new byte[StreamUtils.SEEKABLE_MEMORY_LIMIT + SIZE];
+        System.arraycopy(data, 0, large, large.length - SIZE, SIZE);
+        ISeekableAssetStream stream = StreamUtils.makeSeekable(new BasicAssetStream(new ByteArrayInputStream(large)));
+        Assert.assertEquals(tempFiles + 1, countTempFiles());
+        stream.seek(large.length - SIZE);
+        byte[] tail = new byte[SIZE];
+        Assert.assertEquals(SIZE, stream.read(tail));
+        Assert.assertArrayEquals(data, tail);
+        stream.close();
+        Assert.assertEquals(tempFiles, countTempFiles());
+    }
+}
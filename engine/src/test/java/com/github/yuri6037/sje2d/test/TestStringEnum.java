@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.util.StringEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestStringEnum {
+    /**
+     * Test that every pair is registered, including the last one, and that names are case-insensitive.
+     */
+    @Test
+    public void allPairs() {
+        StringEnum<Integer> e = StringEnum.create("one", 1, "two", 2, "three", 3);
+        Assert.assertEquals(Integer.valueOf(1), e.get(0, "one"));
+        Assert.assertEquals(Integer.valueOf(2), e.get(0, "TWO"));
+        Assert.assertEquals(Integer.valueOf(3), e.get(0, "three"));
+        Assert.assertEquals(Integer.valueOf(0), e.get(0, "four"));
+        Assert.assertEquals(Integer.valueOf(0), e.get(0, null));
+    }
+
+    /**
+     * Test that an odd number of arguments is refused.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void oddArguments() {
+        StringEnum.create("one", 1, "two");
+    }
+}
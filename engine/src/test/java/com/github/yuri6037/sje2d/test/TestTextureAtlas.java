@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.TextureData;
+import com.github.yuri6037.sje2d.asset.atlas.AtlasRegion;
+import com.github.yuri6037.sje2d.asset.atlas.SkylinePacker;
+import com.github.yuri6037.sje2d.asset.atlas.TextureAtlas;
+import com.github.yuri6037.sje2d.render.Rect;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+//CHECKSTYLE OFF: AvoidStarImport
+import static org.lwjgl.opengl.GL12.*;
+//CHECKSTYLE ON
+
+public class TestTextureAtlas {
+    private static TextureData makeTexels(final int width, final int height, final int base) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(width * height * 4);
+        for (int i = 0; i != width * height; ++i) {
+            buffer.putInt(i * 4, base + i);
+        }
+        return new TextureData(buffer, width, height);
+    }
+
+    private static int texel(final AtlasRegion region, final int x, final int y) {
+        int size = region.page().getSize();
+        return region.page().getTexels().getInt(((region.y() + y) * size + region.x() + x) * 4);
+    }
+
+    /**
+     * Test that packed rectangles stay in bounds, never overlap and fill the area reasonably.
+     */
+    @Test
+    public void skyline() {
+        SkylinePacker packer = new SkylinePacker(256, 256);
+        Random random = new Random(42);
+        ArrayList<SkylinePacker.Slot> slots = new ArrayList<>();
+        while (true) {
+            SkylinePacker.Slot slot = packer.insert(4 + random.nextInt(28), 4 + random.nextInt(28));
+            if (slot == null) {
+                break;
+            }
+            Assert.assertTrue(slot.x() >= 0 && slot.y() >= 0);
+            Assert.assertTrue(slot.x() + slot.width() <= 256 && slot.y() + slot.height() <= 256);
+            for (SkylinePacker.Slot other : slots) {
+                boolean disjoint = slot.x() >= other.x() + other.width() || other.x() >= slot.x() + slot.width()
+                        || slot.y() >= other.y() + other.height() || other.y() >= slot.y() + slot.height();
+                Assert.assertTrue(disjoint);
+            }
+            slots.add(slot);
+        }
+        Assert.assertTrue(packer.getOccupancy() > 0.7f);
+        Assert.assertNull(packer.insert(257, 1));
+    }
+
+    /**
+     * Test that a packed texture is copied into its page with its edges extruded into the border.
+     */
+    @Test
+    public void pack() {
+        TextureAtlas atlas = new TextureAtlas("test", 64);
+        AtlasRegion region = atlas.pack(makeTexels(3, 2, 100), GL_NEAREST, GL_NEAREST);
+        Assert.assertNotNull(region);
+        Assert.assertEquals(1, region.x());
+        Assert.assertEquals(1, region.y());
+        Assert.assertEquals(new Rect(1 / 64f, 1 / 64f, 4 / 64f, 3 / 64f), region.getUVRect());
+        for (int y = 0; y != 2; ++y) {
+            for (int x = 0; x != 3; ++x) {
+                Assert.assertEquals(100 + y * 3 + x, texel(region, x, y));
+            }
+            Assert.assertEquals(100 + y * 3, texel(region, -1, y));
+            Assert.assertEquals(100 + y * 3 + 2, texel(region, 3, y));
+        }
+        Assert.assertEquals(100, texel(region, -1, -1));
+        Assert.assertEquals(101, texel(region, 1, -1));
+        Assert.assertEquals(105, texel(region, 3, 2));
+        Assert.assertEquals(0, texel(region, 4, 0));
+    }
+
+    /**
+     * Test that textures share pages by filter mode, open new pages when full and are refused when too large.
+     */
+    @Test
+    public void pages() {
+        TextureAtlas atlas = new TextureAtlas("test", 64);
+        AtlasRegion a = atlas.pack(makeTexels(30, 30, 0), GL_NEAREST, GL_NEAREST);
+        AtlasRegion b = atlas.pack(makeTexels(30, 30, 0), GL_NEAREST, GL_NEAREST);
+        AtlasRegion c = atlas.pack(makeTexels(8, 8, 0), GL_LINEAR, GL_LINEAR);
+        Assert.assertSame(a.page(), b.page());
+        Assert.assertNotSame(a.page(), c.page());
+        Assert.assertEquals(2, atlas.getPages().size());
+        atlas.pack(makeTexels(30, 30, 0), GL_NEAREST, GL_NEAREST);
+        atlas.pack(makeTexels(30, 30, 0), GL_NEAREST, GL_NEAREST);
+        AtlasRegion e = atlas.pack(makeTexels(30, 30, 0), GL_NEAREST, GL_NEAREST);
+        Assert.assertNotSame(a.page(), e.page());
+        Assert.assertEquals(3, atlas.getPages().size());
+        Assert.assertNull(atlas.pack(makeTexels(33, 8, 0), GL_NEAREST, GL_NEAREST));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TextureAtlas("test", 100));
+    }
+
+    /**
+     * Test that releasing all regions of a page, as aborted loads do, removes the page.
+     */
+    @Test
+    public void release() {
+        TextureAtlas atlas = new TextureAtlas("test", 64);
+        AtlasRegion a = atlas.pack(makeTexels(8, 8, 0), GL_NEAREST, GL_NEAREST);
+        AtlasRegion b = atlas.pack(makeTexels(8, 8, 0), GL_NEAREST, GL_NEAREST);
+        atlas.release(a);
+        Assert.assertEquals(List.of(b.page()), atlas.getPages());
+        atlas.release(b);
+        Assert.assertTrue(atlas.getPages().isEmpty());
+        AtlasRegion c = atlas.pack(makeTexels(8, 8, 0), GL_NEAREST, GL_NEAREST);
+        Assert.assertNotSame(b.page(), c.page());
+        Assert.assertEquals(1, c.x());
+    }
+}
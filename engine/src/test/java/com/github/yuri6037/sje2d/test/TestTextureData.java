@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.TextureData;
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.factory.base.NpotPolicy;
+import com.github.yuri6037.sje2d.math.MathUtils;
+import com.github.yuri6037.sje2d.render.Rect;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+
+public class TestTextureData {
+    private static ByteBuffer makeTexels(final int width, final int height) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(width * height * 4);
+        for (int i = 0; i != width * height; ++i) {
+            buffer.putInt(i * 4, i + 1);
+        }
+        return buffer;
+    }
+
+    /**
+     * Test rounding up to powers of 2.
+     */
+    @Test
+    public void nextPowerOfTwo() {
+        Assert.assertEquals(1, MathUtils.nextPowerOfTwo(1));
+        Assert.assertEquals(4, MathUtils.nextPowerOfTwo(3));
+        Assert.assertEquals(256, MathUtils.nextPowerOfTwo(256));
+        Assert.assertEquals(512, MathUtils.nextPowerOfTwo(257));
+    }
+
+    /**
+     * Test that padding keeps the image in the top left corner, repeats its edges once and exposes its UV rect.
+     */
+    @Test
+    public void pad() {
+        TextureData data = new TextureData(makeTexels(5, 3), 5, 3).padToPowerOfTwo();
+        Assert.assertEquals(8, data.textureWidth());
+        Assert.assertEquals(4, data.textureHeight());
+        Assert.assertEquals(new Rect(0, 0, 5 / 8f, 3 / 4f), data.getUVRect());
+        ByteBuffer texels = data.data();
+        for (int y = 0; y != 3; ++y) {
+            for (int x = 0; x != 5; ++x) {
+                Assert.assertEquals(y * 5 + x + 1, texels.getInt((y * 8 + x) * 4));
+            }
+            Assert.assertEquals(y * 5 + 5, texels.getInt((y * 8 + 5) * 4));
+            Assert.assertEquals(0, texels.getInt((y * 8 + 6) * 4));
+        }
+        Assert.assertEquals(11, texels.getInt(3 * 8 * 4));
+        Assert.assertEquals(15, texels.getInt((3 * 8 + 5) * 4));
+        Assert.assertSame(data, data.padToPowerOfTwo());
+    }
+
+    /**
+     * Test the memory sizes reported for a non power of 2 image.
+     */
+    @Test
+    public void sizes() {
+        TextureData data = new TextureData(makeTexels(300, 200), 300, 200);
+        Assert.assertFalse(data.isPowerOfTwo());
+        Assert.assertEquals(300 * 200 * 4, data.getByteSize());
+        Assert.assertEquals(512 * 256 * 4, data.getPowerOfTwoByteSize());
+        Assert.assertEquals(new Rect(0, 0, 1, 1), data.getUVRect());
+    }
+
+    /**
+     * Test the policies selected by the npot URL parameter.
+     * @throws MalformedURLException if a test URL is invalid.
+     */
+    @Test
+    public void policy() throws MalformedURLException {
+        AssetURL url = new AssetURL("texture/png file://a.png");
+        Assert.assertEquals(NpotPolicy.Native, NpotPolicy.fromURL(url));
+        Assert.assertEquals(NpotPolicy.Pad, NpotPolicy.fromURL(new AssetURL("texture/png file://a.png?npot=pad")));
+        Assert.assertEquals(NpotPolicy.Native,
+                NpotPolicy.fromURL(new AssetURL("texture/png file://a.png?npot=native")));
+        Assert.assertThrows(IllegalArgumentException.class, () -> NpotPolicy.Reject.apply(url, makeTexels(6, 4), 6,
+                4));
+        Assert.assertEquals(8, NpotPolicy.Pad.apply(url, makeTexels(6, 4), 6, 4).textureWidth());
+        Assert.assertEquals(6, NpotPolicy.Native.apply(url, makeTexels(6, 4), 6, 4).textureWidth());
+        Assert.assertEquals(4, NpotPolicy.Reject.apply(url, makeTexels(4, 4), 4, 4).textureWidth());
+    }
+}
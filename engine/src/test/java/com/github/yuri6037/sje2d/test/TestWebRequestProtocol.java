@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.cache.HttpCache;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.StreamUtils;
+import com.github.yuri6037.sje2d.asset.protocol.HttpProtocol;
+import com.github.yuri6037.sje2d.asset.protocol.WebRequestProtocol;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class TestWebRequestProtocol {
+    private static final String ETAG = "\"v1\"";
+    private static final String MIME_TYPE = "test/data";
+
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final AtomicInteger fullResponses = new AtomicInteger(0);
+    private final AtomicInteger partialResponses = new AtomicInteger(0);
+    private final AtomicInteger notModifiedResponses = new AtomicInteger(0);
+    private volatile boolean supportsRanges = true;
+    private HttpServer server;
+    private ExecutorService executor;
+    private Path directory;
+    private int parallelDownloads;
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] data = files.get(exchange.getRequestURI().getPath());
+            if (data == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            exchange.getResponseHeaders().set("X-Asset-Type", MIME_TYPE);
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            int start = 0;
+            int end = data.length - 1;
+            if (range != null && supportsRanges) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                start = Integer.parseInt(bounds[0]);
+                end = Math.min(end, Integer.parseInt(bounds[1]));
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+                partialResponses.incrementAndGet();
+                exchange.sendResponseHeaders(206, end - start + 1);
+            } else {
+                fullResponses.incrementAndGet();
+                exchange.sendResponseHeaders(200, data.length);
+            }
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(data, start, end - start + 1);
+            }
+        }
+    }
+
+    /**
+     * Starts the local HTTP server and creates the temporary cache directory.
+     * @throws IOException if the server could not be started.
+     */
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("sje2d-http");
+        parallelDownloads = WebRequestProtocol.getParallelDownloads();
+        executor = Executors.newFixedThreadPool(8);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Stops the local HTTP server and deletes the temporary cache directory.
+     * @throws IOException if the directory could not be deleted.
+     */
+    @After
+    public void cleanup() throws IOException {
+        server.stop(0);
+        executor.shutdown();
+        HttpCache.setDefault(null);
+        WebRequestProtocol.setParallelDownloads(parallelDownloads);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static byte[] makeData(final int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i != size; ++i) {
+            data[i] = (byte) (i * 31 + i / 256);
+        }
+        return data;
+    }
+
+    private ByteBuffer download(final String path) throws Exception {
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        try (IAssetStream stream = new HttpProtocol().open(new AssetURL(url))) {
+            Assert.assertEquals(MIME_TYPE, stream.getMimeType());
+            return StreamUtils.toByteBuffer(stream);
+        }
+    }
+
+    /**
+     * Test that a cached asset is revalidated with its ETag and served from the cache on a 304.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void revalidate() throws Exception {
+        HttpCache.setDefault(new HttpCache(directory));
+        byte[] data = makeData(1000);
+        files.put("/small.bin", data);
+        Assert.assertEquals(ByteBuffer.wrap(data), download("/small.bin"));
+        Assert.assertEquals(0, notModifiedResponses.get());
+        Assert.assertEquals(ByteBuffer.wrap(data), download("/small.bin"));
+        Assert.assertEquals(1, notModifiedResponses.get());
+        Assert.assertEquals(1, partialResponses.get() + fullResponses.get());
+    }
+
+    /**
+     * Test that a large asset is downloaded with parallel range requests.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void ranges() throws Exception {
+        HttpCache.setDefault(new HttpCache(null));
+        WebRequestProtocol.setParallelDownloads(4);
+        byte[] data = makeData(WebRequestProtocol.RANGE_SIZE * 3 + 123);
+        files.put("/large.bin", data);
+        Assert.assertEquals(ByteBuffer.wrap(data), download("/large.bin"));
+        Assert.assertEquals(5, partialResponses.get());
+        Assert.assertEquals(0, fullResponses.get());
+    }
+
+    /**
+     * Test that assets are still downloaded from servers which ignore range requests.
+     * @throws Exception if the test failed.
+     */
+    @Test
+    public void noRanges() throws Exception {
+        HttpCache.setDefault(new HttpCache(null));
+        supportsRanges = false;
+        byte[] data = makeData(WebRequestProtocol.RANGE_SIZE * 2);
+        files.put("/large.bin", data);
+        Assert.assertEquals(ByteBuffer.wrap(data), download("/large.bin"));
+        Assert.assertEquals(1, fullResponses.get());
+        Assert.assertEquals(0, partialResponses.get());
+    }
+}
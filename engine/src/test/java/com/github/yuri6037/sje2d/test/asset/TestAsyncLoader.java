@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test.asset;
+
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.system.IAssetFactory;
+import com.github.yuri6037.sje2d.asset.engine.system.IAssetLoader;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.factory.base.AsyncLoader;
+
+/**
+ * An asynchronous asset loader for UT, which waits for each of its dependencies in turn like the XML loaders do.
+ * URL Parameters:
+ *      - deps: a comma separated list of virtual paths of dependencies.
+ *      - vpath: the virtual path of the asset once loaded (prefixed with "Test/").
+ */
+public final class TestAsyncLoader extends AsyncLoader<Test> {
+    public static final class Factory implements IAssetFactory {
+        @Override
+        public IAssetLoader create(final IAssetStream stream, final AssetURL url) {
+            return new TestAsyncLoader(url);
+        }
+
+        @Override
+        public String getMimeType() {
+            return "test/async";
+        }
+    }
+
+    private TestAsyncLoader(final AssetURL url) {
+        super(url);
+    }
+
+    @Override
+    protected void loadAsync() {
+        String deps = url.getParameter("deps");
+        if (deps == null) {
+            return;
+        }
+        for (String dep : deps.split(",")) {
+            if (awaitAsset(Test.class, dep) == null) {
+                throw new IllegalStateException("Missing dependency '" + dep + "'");
+            }
+        }
+    }
+
+    @Override
+    protected Test createAsset() {
+        return new Test(url.getPath(), false);
+    }
+}
@@ -38,6 +38,8 @@ import com.github.yuri6037.sje2d.asset.engine.system.IAssetLoader;
 import com.github.yuri6037.sje2d.asset.engine.system.ITAssetLoader;
 import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
 
+import java.util.concurrent.Semaphore;
+
 /**
  * An asset loader for UT.
  * URL Parameters:
@@ -45,6 +47,8 @@ import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
  *      - sleep: the sleep delay before and after checking the dependency in milliseconds.
  *      - vpath: the virtual path of the com.github.yuri6037.minengine.test.asset once loaded.
  *      - uthrow: false if the asset should not throw when unloading.
+ *      - gate: true if the load should block until a permit of the gate is released by the test.
+ * Each call to load releases a permit of the attempts semaphore when it returns.
  */
 public final class TestLoader implements ITAssetLoader<Test> {
     public static final class Factory implements IAssetFactory {
@@ -59,6 +63,9 @@ public final class TestLoader implements ITAssetLoader<Test> {
         }
     }
 
+    private static final Semaphore GATE = new Semaphore(0);
+    private static final Semaphore ATTEMPTS = new Semaphore(0);
+
     private final AssetURL url;
     private boolean shouldThrow = true;
 
@@ -66,8 +73,33 @@ public final class TestLoader implements ITAssetLoader<Test> {
         this.url = url;
     }
 
+    /**
+     * @return the semaphore on which loads with the gate parameter block.
+     */
+    public static Semaphore getGate() {
+        return GATE;
+    }
+
+    /**
+     * @return the semaphore receiving a permit each time a load returns.
+     */
+    public static Semaphore getAttempts() {
+        return ATTEMPTS;
+    }
+
     @Override
     public Result load(final AssetDepMap dependencies) throws Exception {
+        try {
+            return loadImpl(dependencies);
+        } finally {
+            ATTEMPTS.release();
+        }
+    }
+
+    private Result loadImpl(final AssetDepMap dependencies) throws Exception {
+        if ("true".equals(url.getParameter("gate"))) {
+            GATE.acquire();
+        }
         String dep = url.getParameter("dep");
         String sleepstr = url.getParameter("sleep");
         String uthrow = url.getParameter("uthrow");
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test.bench;
+
+import com.github.yuri6037.sje2d.asset.engine.map.AssetMap;
+import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the contention of the lock free AssetMap against the previous synchronized implementation.
+ * Run the main method from the test classpath to compare both under 4, 8 and 16 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetMapBenchmark {
+    private static final int ASSET_COUNT = 1024;
+    private static final int[] THREADS = {4, 8, 16};
+
+    private final AssetMap map = new AssetMap();
+    private final LegacyAssetMap legacy = new LegacyAssetMap();
+    private final String[] paths = new String[ASSET_COUNT];
+
+    /**
+     * Fills both maps with the same set of assets.
+     */
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ASSET_COUNT; ++i) {
+            paths[i] = "bench/asset" + i;
+            AssetStore<?> store = new AssetStore<>(paths[i], null);
+            map.push(store);
+            legacy.push(store);
+        }
+    }
+
+    private String randomPath() {
+        return paths[ThreadLocalRandom.current().nextInt(ASSET_COUNT)];
+    }
+
+    /**
+     * Render thread access pattern on the concurrent map.
+     * @return the asset store found.
+     */
+    @Benchmark
+    public AssetStore<?> getConcurrent() {
+        return map.get(randomPath());
+    }
+
+    /**
+     * Render thread access pattern on the synchronized map.
+     * @return the asset store found.
+     */
+    @Benchmark
+    public AssetStore<?> getLegacy() {
+        return legacy.get(randomPath());
+    }
+
+    /**
+     * Loader thread access pattern on the concurrent map.
+     * @return the asset store found.
+     */
+    @Benchmark
+    public AssetStore<?> lockUnlockConcurrent() {
+        String vpath = randomPath();
+        AssetStore<?> store = map.lock(vpath);
+        map.unlock(vpath);
+        return store;
+    }
+
+    /**
+     * Loader thread access pattern on the synchronized map.
+     * @return the asset store found.
+     */
+    @Benchmark
+    public AssetStore<?> lockUnlockLegacy() {
+        String vpath = randomPath();
+        AssetStore<?> store = legacy.lock(vpath);
+        legacy.unlock(vpath);
+        return store;
+    }
+
+    /**
+     * Runs all benchmarks of this class once for each thread count.
+     * @param args ignored.
+     * @throws RunnerException if JMH failed.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            new Runner(new OptionsBuilder()
+                    .include(AssetMapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
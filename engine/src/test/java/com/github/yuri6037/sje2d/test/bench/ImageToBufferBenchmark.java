@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test.bench;
+
+import com.github.yuri6037.sje2d.util.ImageUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ImageUtils.imageToBuffer against the previous column-major getRGB implementation.
+ * Run the main method from the test classpath to compare both on the image types with a fast path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageToBufferBenchmark {
+    private static final int SIZE = 2048;
+
+    @Param({"INT_ARGB", "3BYTE_BGR", "4BYTE_ABGR"})
+    private String type;
+
+    private BufferedImage image;
+
+    /**
+     * Creates an image of the benchmarked type filled with noise.
+     */
+    @Setup
+    public void setup() {
+        int imageType = switch (type) {
+            case "3BYTE_BGR" -> BufferedImage.TYPE_3BYTE_BGR;
+            case "4BYTE_ABGR" -> BufferedImage.TYPE_4BYTE_ABGR;
+            default -> BufferedImage.TYPE_INT_ARGB;
+        };
+        image = new BufferedImage(SIZE, SIZE, imageType);
+        Random random = new Random(0);
+        for (int y = 0; y != SIZE; ++y) {
+            for (int x = 0; x != SIZE; ++x) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+    }
+
+    /**
+     * The conversion as it was before the raster fast paths.
+     * @param image the image to convert.
+     * @return the newly allocated ByteBuffer.
+     */
+    public static ByteBuffer legacyImageToBuffer(final BufferedImage image) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(image.getWidth() * image.getHeight() * 4);
+        for (int x = 0; x != image.getWidth(); ++x) {
+            for (int y = 0; y != image.getHeight(); ++y) {
+                int argb = image.getRGB(x, y);
+                int offset = y * image.getWidth() * 4 + x * 4;
+                buffer.put(offset, (byte) ((argb >> 16) & 0xFF));
+                buffer.put(offset + 1, (byte) ((argb >> 8) & 0xFF));
+                buffer.put(offset + 2, (byte) (argb & 0xFF));
+                buffer.put(offset + 3, (byte) ((argb >> 24) & 0xFF));
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * @return the converted texels.
+     */
+    @Benchmark
+    public ByteBuffer legacy() {
+        return legacyImageToBuffer(image);
+    }
+
+    /**
+     * @return the converted texels.
+     */
+    @Benchmark
+    public ByteBuffer current() {
+        return ImageUtils.imageToBuffer(image);
+    }
+
+    /**
+     * Runs this benchmark.
+     * @param args unused.
+     * @throws RunnerException if the benchmark failed.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ImageToBufferBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023, SJE2D
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification,
+ * are permitted provided that the following conditions are met:
+ *
+ *     * Redistributions of source code must retain the above copyright notice,
+ *       this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *     * Neither the name of BlockProject 3D nor the names of its contributors
+ *       may be used to endorse or promote products derived from this software
+ *       without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.github.yuri6037.sje2d.test.bench;
+
+import com.github.yuri6037.sje2d.asset.config.TypeRegistry;
+import com.github.yuri6037.sje2d.asset.engine.AssetURL;
+import com.github.yuri6037.sje2d.asset.engine.VirtualPathBuilder;
+import com.github.yuri6037.sje2d.asset.engine.manager.AssetManager;
+import com.github.yuri6037.sje2d.asset.engine.manager.AssetManagerProxy;
+import com.github.yuri6037.sje2d.asset.engine.map.AssetDepMap;
+import com.github.yuri6037.sje2d.asset.engine.map.AssetStore;
+import com.github.yuri6037.sje2d.asset.engine.system.IAsset;
+import com.github.yuri6037.sje2d.asset.engine.system.IAssetFactory;
+import com.github.yuri6037.sje2d.asset.engine.system.IAssetLoader;
+import com.github.yuri6037.sje2d.asset.engine.system.stream.IAssetStream;
+import com.github.yuri6037.sje2d.asset.factory.FontFactory;
+import com.github.yuri6037.sje2d.asset.factory.ImageTextureFactory;
+import com.github.yuri6037.sje2d.asset.protocol.ResourceProtocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the asset synchronization done while the examples start: Application.onStart queues the init texture
+ * and waits for it, the fonts and input examples then load the engine font. The real loaders decode the assets but
+ * nothing is uploaded to OpenGL, so that this runs without a window.
+ * Run the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class StartupBenchmark {
+    @Param({"animations", "fonts"})
+    private String example;
+
+    /**
+     * Wraps a factory so that its assets are mounted without creating any OpenGL object.
+     */
+    private static final class HeadlessFactory implements IAssetFactory {
+        private final IAssetFactory factory;
+
+        HeadlessFactory(final IAssetFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public IAssetLoader create(final IAssetStream stream, final AssetURL url) throws Exception {
+            IAssetLoader loader = factory.create(stream, url);
+            return new IAssetLoader() {
+                @Override
+                public Result load(final AssetDepMap dependencies) throws Exception {
+                    return loader.load(dependencies);
+                }
+
+                @Override
+                public AssetStore<?> create() {
+                    return new AssetStore<IAsset>(new VirtualPathBuilder(url).build(), () -> { });
+                }
+            };
+        }
+
+        @Override
+        public String getMimeType() {
+            return factory.getMimeType();
+        }
+    }
+
+    /**
+     * Loads the start-up assets of an example with a fresh AssetManager.
+     * @return the number of loaded assets.
+     * @throws Exception if an asset failed to load.
+     */
+    @Benchmark
+    public int startup() throws Exception {
+        TypeRegistry registry = new TypeRegistry.Builder()
+                .addFactory(new HeadlessFactory(new ImageTextureFactory()))
+                .addFactory(new HeadlessFactory(new FontFactory()))
+                .addProtocol(new ResourceProtocol())
+                .build();
+        AssetManager manager = new AssetManager(registry);
+        AssetManagerProxy proxy = manager.newProxy();
+        proxy.queue(new AssetURL("texture/jpg resource://init.jpg?scope=engine&namespace=Engine&vpath=Init"));
+        manager.waitAll();
+        if (example.equals("fonts")) {
+            proxy.queue(new AssetURL("font/xml resource://font.xml?scope=engine&namespace=Engine"));
+            manager.waitAll();
+        }
+        return proxy.getAssetsCount();
+    }
+
+    /**
+     * Runs this benchmark.
+     * @param args ignored.
+     * @throws RunnerException if the benchmark failed.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StartupBenchmark.class.getSimpleName()).build()).run();
+    }
+}